@@ -1,55 +1,336 @@
 package de.entwicklertraining.bouncer4j;
 
+import de.entwicklertraining.api.base.ApiClient;
+import de.entwicklertraining.bouncer4j.address.AddressCanonicalizer;
+import de.entwicklertraining.bouncer4j.address.AddressNormalizer;
+import de.entwicklertraining.bouncer4j.address.NormalizedAddress;
 import de.entwicklertraining.bouncer4j.batch.*;
+import de.entwicklertraining.bouncer4j.cache.DomainCache;
+import de.entwicklertraining.bouncer4j.cache.DomainInfo;
+import de.entwicklertraining.bouncer4j.cache.SingleFlight;
+import de.entwicklertraining.bouncer4j.cache.VerificationResultCache;
+import de.entwicklertraining.bouncer4j.cache.VerificationResultStore;
+import de.entwicklertraining.bouncer4j.cache.VerificationSnapshot;
+import de.entwicklertraining.bouncer4j.exceptions.BatchTimeoutException;
 import de.entwicklertraining.bouncer4j.exceptions.BouncerException;
+import de.entwicklertraining.bouncer4j.exceptions.CircuitOpenException;
+import de.entwicklertraining.bouncer4j.exceptions.OperationCancelledException;
+import de.entwicklertraining.bouncer4j.verify.domain.VerifyDomainResponse;
 import de.entwicklertraining.bouncer4j.verify.email.*;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 /**
  * Service for checking email addresses with Bouncer
  * to evaluate their reachability and safety for sending (reputation).
+ *
+ * <p>Every check can be given a {@link CancellationToken} carrying a deadline or cancelled by the caller.
+ * Once it is cancelled, requests in flight are aborted, batches are deleted right away, and addresses
+ * without a result so far get a "Cancelled" or "Deadline Exceeded" result.
  */
 public class BouncerCheckService {
 
     private final BouncerClient bouncerClient;
-    private static final int BATCH_POLL_INTERVAL_MS = 5000; // 5 seconds
-    private static final int MAX_BATCH_POLL_ATTEMPTS = 24; // Max 2 minutes wait
+    private final BatchPoller batchPoller;
+    private volatile VerificationResultStore resultCache;
+    private final SingleFlight<String, VerificationSnapshot> inFlightVerifications = new SingleFlight<>();
+    private volatile DomainCache domainCache;
+    private final SingleFlight<String, DomainInfo> inFlightDomains = new SingleFlight<>();
+    private volatile boolean preFilterEnabled = true;
+    private volatile AddressCanonicalizer canonicalizer;
+    private volatile BouncerClientPool clientPool;
+
+    /**
+     * Suggested sub-batch size for {@link #checkBatchEmails(List, BouncerCheckConfig, int)}.
+     */
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = 10_000;
+
+    /**
+     * Batches with at least this many addresses are uploaded with a streamed request body.
+     */
+    private static final int STREAMING_UPLOAD_THRESHOLD = 1_000;
 
     public BouncerCheckService() {
-        this.bouncerClient = new BouncerClient();
+        this(new BouncerClient());
     }
 
     public BouncerCheckService(BouncerClient client) {
-        this.bouncerClient = client;
+        this(client, BatchPoller.builder(client).build());
+    }
+
+    /**
+     * Creates a service that waits for its batches on the given poller,
+     * e.g. to share one poller between several services.
+     *
+     * @param client      The client used for all API calls.
+     * @param batchPoller The poller tracking the batches created by this service.
+     */
+    public BouncerCheckService(BouncerClient client, BatchPoller batchPoller) {
+        this.bouncerClient = Objects.requireNonNull(client, "client cannot be null");
+        this.batchPoller = Objects.requireNonNull(batchPoller, "batchPoller cannot be null");
+    }
+
+    /**
+     * Answers repeated checks of the same address from the given cache instead of verifying it again.
+     * Single and batch verifications both read from and write to the cache; error results are never cached.
+     * Use a {@link de.entwicklertraining.bouncer4j.cache.TieredResultStore} to combine an in-memory cache
+     * with a persistent store.
+     *
+     * @param resultCache the cache or store, or null to always verify
+     */
+    public void setResultCache(VerificationResultStore resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * @return the result cache, or null if results are not cached
+     */
+    public VerificationResultStore getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Enables the local pre-filter (enabled by default): every address is trimmed, its domain lower-cased
+     * and converted to punycode, and addresses with invalid syntax are answered locally with an
+     * "Invalid Syntax" result instead of being sent to Bouncer. Lists are de-duplicated after normalisation.
+     *
+     * @param preFilterEnabled false to send every address to Bouncer as it is
+     * @see AddressNormalizer
+     */
+    public void setPreFilterEnabled(boolean preFilterEnabled) {
+        this.preFilterEnabled = preFilterEnabled;
+    }
+
+    public boolean isPreFilterEnabled() {
+        return preFilterEnabled;
+    }
+
+    /**
+     * Verifies only one canonical spelling per mailbox, e.g. {@code johndoe@gmail.com} for
+     * {@code John.Doe+news@gmail.com}, and returns its result for every spelling of the input.
+     * Disabled by default.
+     *
+     * @param canonicalizer the provider rules, e.g. {@link AddressCanonicalizer#defaults()}, or null to verify every spelling
+     */
+    public void setCanonicalizer(AddressCanonicalizer canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+
+    /**
+     * @return the canonicalizer, or null if addresses are not canonicalised
+     */
+    public AddressCanonicalizer getCanonicalizer() {
+        return canonicalizer;
+    }
+
+    /**
+     * Remembers per domain what Bouncer reported about it (accept-all, disposable, invalid domain),
+     * learned from every single and batch result and from {@link #checkDomain(String)}.
+     * Addresses on a domain that cannot receive mail, or that the config blocks as disposable or
+     * accept-all, are then rejected locally without an API call.
+     *
+     * @param domainCache the cache, or null to disable domain-level short-circuits
+     */
+    public void setDomainCache(DomainCache domainCache) {
+        this.domainCache = domainCache;
+    }
+
+    /**
+     * @return the domain cache, or null if domain information is not cached
+     */
+    public DomainCache getDomainCache() {
+        return domainCache;
+    }
+
+    /**
+     * Spreads single email and domain verifications over the API keys of a pool, so throughput grows
+     * with the number of accounts. Batches keep running on the client of this service, as a batch has to
+     * be created, polled and downloaded with the same key.
+     *
+     * @param clientPool the pool, or null to send all requests with the client of this service
+     */
+    public void setClientPool(BouncerClientPool clientPool) {
+        this.clientPool = clientPool;
+    }
+
+    /**
+     * @return the client pool, or null if all requests use the client of this service
+     */
+    public BouncerClientPool getClientPool() {
+        return clientPool;
+    }
+
+    /**
+     * Runs single requests on a client of the pool, or on the client of this service if there is no pool.
+     */
+    private <T> T call(Function<BouncerClient, T> request) {
+        BouncerClientPool pool = clientPool;
+        return pool != null ? pool.execute(request) : request.apply(bouncerClient);
+    }
+
+    /**
+     * Verifies a domain, e.g. to warm the domain cache before checking a list of addresses.
+     * Answered from the domain cache if possible; concurrent checks of the same domain share one API call.
+     *
+     * @param domain The domain to check.
+     * @return The domain information, or empty if the API call failed.
+     */
+    public Optional<DomainInfo> checkDomain(String domain) {
+        return checkDomain(domain, CancellationToken.none());
+    }
+
+    /**
+     * Verifies a domain like {@link #checkDomain(String)}, giving up once the token is cancelled.
+     *
+     * @param domain The domain to check.
+     * @param token  Cancels the check, e.g. at a deadline.
+     * @return The domain information, or empty if the API call failed or was cancelled.
+     */
+    public Optional<DomainInfo> checkDomain(String domain, CancellationToken token) {
+        Objects.requireNonNull(domain, "Input domain cannot be null");
+        Objects.requireNonNull(token, "token cannot be null");
+        String key = domain.trim().toLowerCase(Locale.ROOT);
+        DomainCache cache = this.domainCache;
+        if (cache != null) {
+            Optional<DomainInfo> cached = cache.get(key);
+            if (cached.isPresent()) {
+                return cached;
+            }
+        }
+        try {
+            while (true) {
+                try {
+                    return Optional.of(inFlightDomains.execute(key, token, () -> {
+                        VerifyDomainResponse response = call(client -> client.verify().domain().domain(key).execute(token));
+                        DomainInfo info = DomainInfo.of(response);
+                        if (cache != null) {
+                            cache.put(info);
+                        }
+                        return info;
+                    }));
+                } catch (OperationCancelledException e) {
+                    if (token.isCancelled()) {
+                        throw e;
+                    }
+                    // The shared call was cancelled by another caller; check the domain ourselves
+                }
+            }
+        } catch (OperationCancelledException e) {
+            System.err.println("Domain check cancelled for " + domain + ": " + e.getMessage());
+            return Optional.empty();
+        } catch (BouncerException e) {
+            System.err.println("Bouncer API error for domain " + domain + ": " + e.getMessage());
+            return Optional.empty();
+        } catch (Exception e) {
+            System.err.println("Unexpected error checking domain " + domain + ": " + e.getMessage());
+            return Optional.empty();
+        }
     }
 
     /**
      * Checks a single email address.
+     * Concurrent checks of the same (case-insensitive) address share one API call.
      *
      * @param email  The email address to check.
      * @param config The configuration for security evaluation.
      * @return The check result.
      */
     public EmailCheckResult checkSingleEmail(String email, BouncerCheckConfig config) {
+        return checkSingleEmail(email, config, CancellationToken.none());
+    }
+
+    /**
+     * Checks a single email address like {@link #checkSingleEmail(String, BouncerCheckConfig)},
+     * giving up once the token is cancelled.
+     *
+     * @param email  The email address to check.
+     * @param config The configuration for security evaluation.
+     * @param token  Cancels the check, e.g. at a deadline.
+     * @return The check result; a "Cancelled" or "Deadline Exceeded" result if the token was cancelled first.
+     */
+    public EmailCheckResult checkSingleEmail(String email, BouncerCheckConfig config, CancellationToken token) {
         Objects.requireNonNull(email, "Input email cannot be null");
         Objects.requireNonNull(config, "Input config cannot be null");
+        Objects.requireNonNull(token, "token cannot be null");
+        String address = email;
+        if (preFilterEnabled) {
+            NormalizedAddress normalized = AddressNormalizer.normalize(email);
+            if (!normalized.isValid()) {
+                return invalidSyntax(email, normalized.rejectReason());
+            }
+            address = normalized.address();
+        }
+        AddressCanonicalizer canonicalizer = this.canonicalizer;
+        if (canonicalizer != null) {
+            address = canonicalizer.canonicalize(address);
+        }
+        return verifySingle(email, address, config, TrafficClass.INTERACTIVE, token);
+    }
+
+    /**
+     * Verifies one normalised address, using the caches where possible.
+     *
+     * @param email        The address as given by the caller; used in the result.
+     * @param address      The normalised address that is verified.
+     * @param trafficClass The priority of the verification request.
+     * @param token        Cancels the verification request.
+     */
+    private EmailCheckResult verifySingle(String email, String address, BouncerCheckConfig config, TrafficClass trafficClass,
+                                          CancellationToken token) {
+        VerificationResultStore cache = this.resultCache;
+        if (cache != null) {
+            Optional<VerificationSnapshot> cached = cache.get(address);
+            if (cached.isPresent()) {
+                return evaluateBouncerResult(email, cached.get(), config);
+            }
+        }
+        EmailCheckResult rejected = rejectByDomain(email, address, config);
+        if (rejected != null) {
+            return rejected;
+        }
         try {
-            VerifyEmailResponse response = bouncerClient.verify().email()
-                    .email(email)
-                    // Optional: Set timeout for individual request if needed
-                    // .timeout(15)
-                    .execute();
-
-            return evaluateBouncerResult(
-                    response.getEmail(),
-                    response.getStatus(),
-                    response.getReason(),
-                    response.getDomain().orElse(null),
-                    response.getAccount().orElse(null),
-                    response.getToxicity(),
-                    config);
+            VerificationSnapshot snapshot;
+            while (true) {
+                try {
+                    // Keyed by traffic class as well, so an interactive check never joins a queued bulk verification
+                    snapshot = inFlightVerifications.execute(trafficClass + ":" + VerificationResultCache.key(address), token, () -> {
+                        VerifyEmailResponse response = call(client -> client.verify().email()
+                                .email(address)
+                                .trafficClass(trafficClass)
+                                // Optional: Set timeout for individual request if needed
+                                // .timeout(15)
+                                .execute(token));
+
+                        VerificationSnapshot verified = VerificationSnapshot.of(response);
+                        if (cache != null) {
+                            cache.put(address, verified);
+                        }
+                        learnDomain(response.getEmail(), response.getStatus(), response.getReason(), response.getDomain().orElse(null));
+                        return verified;
+                    });
+                    break;
+                } catch (OperationCancelledException e) {
+                    if (token.isCancelled()) {
+                        throw e;
+                    }
+                    // The shared call was cancelled by another caller; verify the address ourselves
+                }
+            }
+            return evaluateBouncerResult(email, snapshot, config);
 
+        } catch (OperationCancelledException e) {
+            return cancelled(email, e);
+        } catch (CircuitOpenException e) {
+            // Bouncer is degraded; answer at once instead of waiting for it
+            return unverified(email, config);
         } catch (BouncerException e) {
             // API error or invalid response
             System.err.println("Bouncer API error for email " + email + ": " + e.getMessage());
@@ -61,100 +342,396 @@ public class BouncerCheckService {
         }
     }
 
+    /**
+     * Checks a list of email addresses with parallel single verifications instead of a batch.
+     * For mid-size lists (roughly 100 - 5000 addresses) this avoids the queueing delay of a batch job.
+     * Every distinct address is verified on its own virtual thread, at most {@code maxConcurrency} at a time.
+     * The verifications are sent as {@link TrafficClass#BULK} requests.
+     *
+     * @param emails         The list of email addresses to check. Must not contain null elements.
+     * @param config         The configuration for security evaluation.
+     * @param maxConcurrency Maximum number of verifications in flight at the same time.
+     * @return One check result per input entry, in input order. Duplicates, also after normalisation,
+     *         share the result of one verification.
+     */
+    public List<EmailCheckResult> checkEmailsConcurrently(List<String> emails, BouncerCheckConfig config, int maxConcurrency) {
+        return checkEmailsConcurrently(emails, config, maxConcurrency, CancellationToken.none());
+    }
+
+    /**
+     * Checks a list of email addresses with parallel single verifications like
+     * {@link #checkEmailsConcurrently(List, BouncerCheckConfig, int)}. Once the token is cancelled, verifications
+     * in flight are aborted and no new ones are started.
+     *
+     * @param emails         The list of email addresses to check. Must not contain null elements.
+     * @param config         The configuration for security evaluation.
+     * @param maxConcurrency Maximum number of verifications in flight at the same time.
+     * @param token          Cancels the check, e.g. at a deadline.
+     * @return One check result per input entry, in input order.
+     */
+    public List<EmailCheckResult> checkEmailsConcurrently(List<String> emails, BouncerCheckConfig config, int maxConcurrency,
+                                                          CancellationToken token) {
+        Objects.requireNonNull(emails, "Input email list cannot be null");
+        Objects.requireNonNull(config, "Input config cannot be null");
+        Objects.requireNonNull(token, "token cannot be null");
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        if (emails.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Input email list contains null elements!");
+        }
+
+        PreparedEmails prepared = prepare(emails);
+        List<String> distinctEmails = prepared.distinct();
+        EmailCheckResult[] distinctResults = new EmailCheckResult[distinctEmails.size()];
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < distinctEmails.size(); i++) {
+                int index = i;
+                executor.execute(() -> {
+                    String email = distinctEmails.get(index);
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        distinctResults[index] = new EmailCheckResult(email, false, false, "Unexpected Error: Interrupted");
+                        return;
+                    }
+                    try {
+                        distinctResults[index] = verifySingle(email, email, config, TrafficClass.BULK, token);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } // close() waits for all verifications; it also publishes the array writes to this thread
+
+        for (int i = 0; i < distinctResults.length; i++) {
+            if (distinctResults[i] == null) { // Task never ran, e.g. because the calling thread was interrupted
+                distinctResults[i] = new EmailCheckResult(distinctEmails.get(i), false, false, "Unexpected Error: Interrupted");
+            }
+        }
+        return prepared.inInputOrder(emails, distinctResults);
+    }
+
     /**
      * Checks a list of email addresses using batch processing.
      *
      * @param emails The list of email addresses to check. Must not contain null elements.
      * @param config The configuration for security evaluation.
-     * @return A list of check results. The order may not match the input
-     *         as duplicates might be removed by Bouncer. Use the email address for mapping.
+     * @return A list with one check result per distinct input entry. Use the email address for mapping;
+     *         entries that normalise to the same address share the result of one verification.
      *         For emails not processed in the batch (e.g., API error), an error result is returned.
      */
     public List<EmailCheckResult> checkBatchEmails(List<String> emails, BouncerCheckConfig config) {
-        Objects.requireNonNull(emails, "Input email list cannot be null");
-        Objects.requireNonNull(config, "Input config cannot be null");
+        return checkBatchEmails(emails, config, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks a list of email addresses using batch processing, splitting the distinct addresses
+     * into sub-batches of at most {@code chunkSize} entries.
+     * All sub-batches are created, polled and downloaded concurrently and their results are merged,
+     * so the total duration is roughly that of the slowest chunk instead of one monolithic batch.
+     * A failing chunk only marks its own addresses with an error result.
+     *
+     * @param emails    The list of email addresses to check. Must not contain null elements.
+     * @param config    The configuration for security evaluation.
+     * @param chunkSize Maximum number of distinct addresses per sub-batch
+     *                  (e.g. {@link #DEFAULT_BATCH_CHUNK_SIZE}).
+     * @return A list of check results, see {@link #checkBatchEmails(List, BouncerCheckConfig)}.
+     */
+    public List<EmailCheckResult> checkBatchEmails(List<String> emails, BouncerCheckConfig config, int chunkSize) {
+        return checkBatchEmails(emails, config, chunkSize, CancellationToken.none());
+    }
+
+    /**
+     * Checks a list of email addresses using batch processing like
+     * {@link #checkBatchEmails(List, BouncerCheckConfig, int)}. The token bounds the whole check: polling
+     * ends at its deadline, and once it is cancelled, uploads and downloads in flight are aborted and all
+     * batches are deleted at once.
+     *
+     * @param emails    The list of email addresses to check. Must not contain null elements.
+     * @param config    The configuration for security evaluation.
+     * @param chunkSize Maximum number of distinct addresses per sub-batch.
+     * @param token     Cancels the check, e.g. {@code CancellationToken.withTimeout(Duration.ofMinutes(10))}.
+     * @return A list of check results, see {@link #checkBatchEmails(List, BouncerCheckConfig)}.
+     */
+    public List<EmailCheckResult> checkBatchEmails(List<String> emails, BouncerCheckConfig config, int chunkSize,
+                                                   CancellationToken token) {
+        return checkBatchEmails(emails, config, chunkSize, token, null);
+    }
+
+    /**
+     * Checks a list of email addresses using batch processing, asking before every batch upload whether it
+     * may still be sent. Used by {@link EmailCheckBatcher} to take a window back for single verification as
+     * long as none of its addresses has been charged.
+     *
+     * @param beforeUpload Called right before a batch is created; if it returns false, the batch is skipped
+     *                     and its addresses get a "Batch Skipped" result. May be null.
+     */
+    List<EmailCheckResult> checkBatchEmails(List<String> emails, BouncerCheckConfig config, int chunkSize,
+                                            CancellationToken token, BooleanSupplier beforeUpload) {
+        requireBatchArguments(emails, config, chunkSize, token);
         if (emails.isEmpty()) {
             return new ArrayList<>();
         }
 
+        // Unique, syntactically valid emails for processing
+        PreparedEmails prepared = prepare(emails);
+        return prepared.perSpelling(emails, verifyDistinct(prepared, config, chunkSize, token, beforeUpload));
+    }
+
+    /**
+     * Checks a list of email addresses using batch processing and returns the results aligned with the input.
+     *
+     * @param emails The list of email addresses to check. Must not contain null elements.
+     * @param config The configuration for security evaluation.
+     * @return One check result per input entry: result {@code i} belongs to {@code emails.get(i)}, duplicates included.
+     */
+    public List<EmailCheckResult> checkBatchEmailsInOrder(List<String> emails, BouncerCheckConfig config) {
+        return checkBatchEmailsInOrder(emails, config, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks a list of email addresses using batch processing with sub-batches of at most {@code chunkSize}
+     * distinct addresses, see {@link #checkBatchEmails(List, BouncerCheckConfig, int)}, and returns the results
+     * aligned with the input. Results are assembled through an index per input row, so lining them up with
+     * the input rows needs no further lookups.
+     *
+     * @param emails    The list of email addresses to check. Must not contain null elements.
+     * @param config    The configuration for security evaluation.
+     * @param chunkSize Maximum number of distinct addresses per sub-batch.
+     * @return One check result per input entry: result {@code i} belongs to {@code emails.get(i)}, duplicates included.
+     */
+    public List<EmailCheckResult> checkBatchEmailsInOrder(List<String> emails, BouncerCheckConfig config, int chunkSize) {
+        return checkBatchEmailsInOrder(emails, config, chunkSize, CancellationToken.none());
+    }
+
+    /**
+     * Checks a list of email addresses using batch processing like
+     * {@link #checkBatchEmailsInOrder(List, BouncerCheckConfig, int)}, bounded by the token as described in
+     * {@link #checkBatchEmails(List, BouncerCheckConfig, int, CancellationToken)}.
+     *
+     * @param emails    The list of email addresses to check. Must not contain null elements.
+     * @param config    The configuration for security evaluation.
+     * @param chunkSize Maximum number of distinct addresses per sub-batch.
+     * @param token     Cancels the check, e.g. at a deadline.
+     * @return One check result per input entry: result {@code i} belongs to {@code emails.get(i)}, duplicates included.
+     */
+    public List<EmailCheckResult> checkBatchEmailsInOrder(List<String> emails, BouncerCheckConfig config, int chunkSize,
+                                                          CancellationToken token) {
+        requireBatchArguments(emails, config, chunkSize, token);
+        PreparedEmails prepared = prepare(emails);
+        return prepared.inInputOrder(emails, verifyDistinct(prepared, config, chunkSize, token, null));
+    }
+
+    /**
+     * Validates the arguments shared by all batch checks.
+     */
+    private static void requireBatchArguments(List<String> emails, BouncerCheckConfig config, int chunkSize,
+                                              CancellationToken token) {
+        Objects.requireNonNull(emails, "Input email list cannot be null");
+        Objects.requireNonNull(config, "Input config cannot be null");
+        Objects.requireNonNull(token, "token cannot be null");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
         // Explicit check for null elements in the list
         if (emails.stream().anyMatch(Objects::isNull)) {
             throw new IllegalArgumentException("Input email list contains null elements!");
         }
+    }
+
+    /**
+     * Verifies the distinct normalised addresses, using the caches where possible and batches for the rest.
+     *
+     * @param beforeUpload Asked before every batch upload, see
+     *                     {@link #checkBatchEmails(List, BouncerCheckConfig, int, CancellationToken, BooleanSupplier)}.
+     * @return A result for every address of {@code prepared.distinct()}, at the same index.
+     */
+    private EmailCheckResult[] verifyDistinct(PreparedEmails prepared, BouncerCheckConfig config, int chunkSize,
+                                              CancellationToken token, BooleanSupplier beforeUpload) {
+        List<String> distinctEmails = prepared.distinct();
+        EmailCheckResult[] results = new EmailCheckResult[distinctEmails.size()];
+
+        // Answer cached addresses and known bad domains directly, only the rest goes into the batch
+        int[] uncached = new int[distinctEmails.size()];
+        int uncachedCount = 0;
+        VerificationResultStore cache = this.resultCache;
+        for (int slot = 0; slot < results.length; slot++) {
+            EmailCheckResult local = null;
+            if (cache != null || domainCache != null) {
+                String email = distinctEmails.get(slot);
+                Optional<VerificationSnapshot> cached = cache != null ? cache.get(email) : Optional.empty();
+                local = cached.isPresent()
+                        ? evaluateBouncerResult(email, cached.get(), config)
+                        : rejectByDomain(email, email, config);
+            }
+            if (local != null) {
+                results[slot] = local;
+            } else {
+                uncached[uncachedCount++] = slot;
+            }
+        }
+        if (uncachedCount < results.length) {
+            System.out.println((results.length - uncachedCount) + " of " + results.length + " distinct emails answered from the result and domain caches.");
+        }
 
-        // Unique emails for processing and map initialization
-        List<String> distinctEmails = emails.stream().distinct().toList();
+        if (uncachedCount == 0) {
+            return results;
+        }
+        if (uncachedCount <= chunkSize) {
+            processBatch(prepared, Arrays.copyOf(uncached, uncachedCount), results, config, token, beforeUpload);
+            return results;
+        }
 
-        // Alternative map initialization to avoid toMap collector
-        Map<String, EmailCheckResult> resultMap = new HashMap<>();
-        for (String email : distinctEmails) {
-            resultMap.put(email, null); // Placeholder
+        List<int[]> chunks = new ArrayList<>();
+        for (int from = 0; from < uncachedCount; from += chunkSize) {
+            chunks.add(Arrays.copyOfRange(uncached, from, Math.min(from + chunkSize, uncachedCount)));
         }
+        System.out.println("Splitting " + uncachedCount + " distinct emails into " + chunks.size() + " sub-batches of up to " + chunkSize + " emails.");
 
+        // Every chunk writes only the slots it owns; Future.get() publishes those writes to this thread
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(chunks.size());
+            for (int[] chunk : chunks) {
+                futures.add(executor.submit(() -> processBatch(prepared, chunk, results, config, token, beforeUpload)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                    System.err.println("Unexpected error in sub-batch " + (i + 1) + "/" + chunks.size() + ": " + message);
+                    updateResultsWithError(results, chunks.get(i), distinctEmails, "Unexpected Error: " + message);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Restore interrupt status
+            updateResultsWithError(results, Arrays.copyOf(uncached, uncachedCount), distinctEmails, "Unexpected Error: Interrupted");
+        }
+        return results;
+    }
+
+    /**
+     * Runs a single Bouncer batch for some of the distinct emails: create, poll, download and delete.
+     * Never throws for API errors; affected emails receive an error result instead.
+     *
+     * @param prepared     The prepared input; the batch contains the addresses of {@code slots}.
+     * @param slots        The ascending indices into {@code prepared.distinct()} of the addresses of this batch.
+     * @param results      Receives a result for every slot of this batch, at the slot's index.
+     * @param config       The configuration for security evaluation.
+     * @param token        Aborts the upload, polling and download; the batch is deleted at once.
+     * @param beforeUpload Asked right before the batch is created; false skips the batch. May be null.
+     */
+    private void processBatch(PreparedEmails prepared, int[] slots, EmailCheckResult[] results, BouncerCheckConfig config,
+                              CancellationToken token, BooleanSupplier beforeUpload) {
+        List<String> allDistinct = prepared.distinct();
+        List<String> distinctEmails = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            distinctEmails.add(allDistinct.get(slot));
+        }
+
+        VerificationResultStore cache = this.resultCache;
         String batchId = null;
+        Future<CheckBatchStatusResponse> completionFuture = null;
         try {
-            // Send only unique emails to the batch API
-            CreateBatchResponse createResponse = bouncerClient.batch().create()
-                    .emails(distinctEmails)
-                    .execute();
+            if (beforeUpload != null && !beforeUpload.getAsBoolean()) {
+                updateResultsWithError(results, slots, allDistinct, "Batch Skipped");
+                return;
+            }
+            // Send only unique emails to the batch API; large bodies are streamed instead of built as a string
+            CreateBatchRequest.Builder createRequest = bouncerClient.batch().create().emails(distinctEmails);
+            CreateBatchResponse createResponse = distinctEmails.size() >= STREAMING_UPLOAD_THRESHOLD
+                    ? createRequest.executeStreaming(token)
+                    : createRequest.execute(token);
             batchId = createResponse.getBatchId();
             System.out.println("Batch created with ID: " + batchId + ", Status: " + createResponse.getStatus() + " for " + distinctEmails.size() + " distinct emails.");
 
-            boolean completed = pollBatchCompletion(batchId);
-            if (!completed) {
-                String errorMsg = "Batch " + batchId + " did not complete within the timeout.";
-                System.err.println(errorMsg);
-                updateResultsWithError(resultMap, distinctEmails, "Batch Timeout"); // Update only unique ones
-                return new ArrayList<>(resultMap.values());
+            // Wait on the shared poller; status calls do not occupy this thread
+            // Waiting ends at the deadline of the token, or as soon as it is cancelled
+            Future<CheckBatchStatusResponse> completion = batchPoller.awaitCompletion(batchId, token.getDeadline());
+            completionFuture = completion;
+            try (CancellationToken.Registration ignored = token.onCancel(() -> completion.cancel(true))) {
+                completion.get();
+            } catch (CancellationException e) {
+                throw token.isCancelled() ? token.toException() : e;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof BatchTimeoutException && token.isCancelled()) {
+                    throw token.toException();
+                }
+                if (e.getCause() instanceof BatchTimeoutException) {
+                    System.err.println("Batch " + batchId + " did not complete within the timeout.");
+                    updateResultsWithError(results, slots, allDistinct, "Batch Timeout"); // Update only unique ones
+                    return;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : new BouncerException(e.getCause().getMessage(), e.getCause());
             }
 
-            // Download batch results
-            DownloadBatchResultsResponse resultsResponse;
+            // Stream the batch results item by item instead of materialising the whole array
             try {
-                resultsResponse = bouncerClient.batch().download(batchId)
+                bouncerClient.batch().download(batchId)
                         .filter("all")
-                        .execute();
-            } catch (BouncerException | org.json.JSONException e) {
+                        .stream(item -> {
+                            // Check if the email from the result was in this batch
+                            int slot = prepared.slotOf(item.getEmail());
+                            if (slot >= 0 && Arrays.binarySearch(slots, slot) >= 0) {
+                                VerificationSnapshot snapshot = VerificationSnapshot.of(item);
+                                if (cache != null) {
+                                    cache.put(item.getEmail(), snapshot);
+                                }
+                                learnDomain(item.getEmail(), item.getStatus(), item.getReason(), item.getDomain().orElse(null));
+                                results[slot] = evaluateBouncerResult(item.getEmail(), snapshot, config);
+                            } else {
+                                System.err.println("Warning: Received result for email not in the distinct input list: " + item.getEmail());
+                            }
+                        }, token);
+            } catch (OperationCancelledException e) {
+                throw e;
+            } catch (BouncerException | ApiClient.ApiResponseUnusableException e) {
                 System.err.println("Error downloading batch results for batch " + batchId + ": " + e.getMessage());
                 throw new BouncerException("Failed to download batch results: " + e.getMessage(), e);
             }
 
-            for (BatchResultItem item : resultsResponse.getItems()) {
-                // Check if the email from the result was in our original list
-                if (resultMap.containsKey(item.getEmail())) {
-                    EmailCheckResult result = evaluateBouncerResult(
-                            item.getEmail(),
-                            item.getStatus(),
-                            item.getReason(),
-                            item.getDomain().orElse(null),
-                            item.getAccount().orElse(null),
-                            item.getToxicity(),
-                            config);
-                    resultMap.put(item.getEmail(), result);
-                } else {
-                    System.err.println("Warning: Received result for email not in the distinct input list: " + item.getEmail());
-                }
-            }
-
             // Check if all unique emails have a result
-            for (String email : distinctEmails) {
-                if (resultMap.get(email) == null) {
-                    resultMap.put(email, new EmailCheckResult(email, false, false, "Email not found in Bouncer batch results"));
+            for (int slot : slots) {
+                if (results[slot] == null) {
+                    String email = allDistinct.get(slot);
+                    results[slot] = new EmailCheckResult(email, false, false, "Email not found in Bouncer batch results");
                     System.err.println("Warning: No result found for email in batch: " + email);
                 }
             }
 
+        } catch (OperationCancelledException e) {
+            System.err.println("Batch processing cancelled (Batch ID: " + batchId + "): " + e.getMessage());
+            for (int slot : slots) {
+                if (results[slot] == null) {
+                    results[slot] = cancelled(allDistinct.get(slot), e);
+                }
+            }
+        } catch (CircuitOpenException e) {
+            // Only the creation is guarded by the breaker; a batch that exists is always polled and downloaded
+            System.err.println("Batch processing skipped (Batch ID: " + batchId + "): " + e.getMessage());
+            for (int slot : slots) {
+                if (results[slot] == null) {
+                    results[slot] = unverified(allDistinct.get(slot), config);
+                }
+            }
         } catch (BouncerException e) {
             System.err.println("Bouncer API error during batch processing (Batch ID: " + batchId + "): " + e.getMessage());
-            updateResultsWithError(resultMap, distinctEmails, "API Error: " + e.getMessage()); // Update only unique ones
-        } catch (Exception e) { // Including InterruptedException from polling
+            updateResultsWithError(results, slots, allDistinct, "API Error: " + e.getMessage()); // Update only unique ones
+        } catch (Exception e) { // Including InterruptedException while waiting for the poller
             System.err.println("Unexpected error during batch processing (Batch ID: " + batchId + "): " + e.getMessage());
-            updateResultsWithError(resultMap, distinctEmails, "Unexpected Error: " + e.getMessage()); // Update only unique ones
+            updateResultsWithError(results, slots, allDistinct, "Unexpected Error: " + e.getMessage()); // Update only unique ones
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt(); // Restore interrupt status
             }
         } finally {
+            if (completionFuture != null && !completionFuture.isDone()) {
+                completionFuture.cancel(true); // Stop polling a batch we are about to delete
+            }
             if (batchId != null) {
+                // Also after cancellation, so Bouncer stops working on the batch
                 try {
                     System.out.println("Deleting batch " + batchId);
                     bouncerClient.batch().delete(batchId).execute();
@@ -163,47 +740,180 @@ public class BouncerCheckService {
                 }
             }
         }
+    }
 
-        // Ensure results are returned in order of *unique* input (optional, but often desired)
-        // Or simply return the map values as before. Maintaining current behavior:
-        return new ArrayList<>(resultMap.values());
+    /**
+     * Pre-filter stage: normalises and canonicalises the addresses, answers invalid ones locally and removes duplicates.
+     * Without the pre-filter and canonicalizer every address is used as it is.
+     */
+    private PreparedEmails prepare(List<String> emails) {
+        boolean preFilter = preFilterEnabled;
+        AddressCanonicalizer canonicalizer = this.canonicalizer;
+        // Keyed by normalised address, or by the spelling itself for a rejected one. A rejected spelling never
+        // equals a normalised address, as that would have passed the syntax check.
+        Map<String, Integer> slotByKey = new HashMap<>();
+        List<String> distinct = new ArrayList<>();
+        List<EmailCheckResult> rejected = new ArrayList<>();
+        int[] slotByInput = new int[emails.size()];
+        int row = 0;
+        for (String email : emails) {
+            String key = email;
+            NormalizedAddress normalized = preFilter ? AddressNormalizer.normalize(email) : null;
+            boolean valid = normalized == null || normalized.isValid();
+            if (valid) {
+                if (normalized != null) {
+                    key = normalized.address();
+                }
+                if (canonicalizer != null) {
+                    key = canonicalizer.canonicalize(key);
+                }
+            }
+            Integer slot = slotByKey.get(key);
+            if (slot == null) {
+                if (valid) {
+                    slot = distinct.size();
+                    distinct.add(key);
+                } else {
+                    rejected.add(invalidSyntax(email, normalized.rejectReason()));
+                    slot = -rejected.size();
+                }
+                slotByKey.put(key, slot);
+            }
+            slotByInput[row++] = slot;
+        }
+        if (!rejected.isEmpty()) {
+            System.out.println(rejected.size() + " emails rejected by the local syntax check.");
+        }
+        if (distinct.size() + rejected.size() < emails.size()) {
+            System.out.println(emails.size() + " input entries map to " + distinct.size() + " distinct addresses to verify.");
+        }
+        return new PreparedEmails(distinct, slotByKey, rejected, slotByInput);
     }
 
     /**
-     * Helper method to poll batch status until completion.
-     * @param batchId The batch ID.
-     * @return true if batch completed successfully, false on timeout or error status.
-     * @throws InterruptedException If thread is interrupted while waiting.
-     * @throws BouncerException If an API error occurs during polling.
+     * Outcome of {@link #prepare(List)}. Every input row has a slot: an index into {@code distinct}
+     * for addresses to verify, or {@code -(i + 1)} for the i-th entry of {@code rejected}.
+     * Results of the distinct addresses are kept in an array at the index of their slot.
+     *
+     * @param distinct    The distinct normalised addresses to verify.
+     * @param slotByKey   The slot of every distinct address and rejected spelling.
+     * @param rejected    Local results for rejected input spellings.
+     * @param slotByInput The slot of every input row.
      */
-    private boolean pollBatchCompletion(String batchId) throws InterruptedException, BouncerException {
-        for (int attempt = 0; attempt < MAX_BATCH_POLL_ATTEMPTS; attempt++) {
-            CheckBatchStatusResponse statusResponse = bouncerClient.batch().status(batchId).execute();
-            String status = statusResponse.getStatus();
-            // Defensive programming: check for null status
-            if (status == null) {
-                System.err.println("Warning: Received null status for Batch " + batchId + ". Assuming not completed.");
-                Thread.sleep(BATCH_POLL_INTERVAL_MS); // Wait anyway
-                continue;
+    private record PreparedEmails(List<String> distinct, Map<String, Integer> slotByKey,
+                                  List<EmailCheckResult> rejected, int[] slotByInput) {
+
+        /**
+         * @return The index of the address in {@code distinct}, or -1 if it is not one of them.
+         */
+        int slotOf(String address) {
+            Integer slot = address != null ? slotByKey.get(address) : null;
+            return slot != null && slot >= 0 ? slot : -1;
+        }
+
+        /**
+         * @return One result per input row, in input order.
+         */
+        List<EmailCheckResult> inInputOrder(List<String> emails, EmailCheckResult[] bySlot) {
+            List<EmailCheckResult> results = new ArrayList<>(slotByInput.length);
+            int row = 0;
+            for (String email : emails) {
+                results.add(resultFor(email, slotByInput[row++], bySlot));
             }
-            Integer processed = statusResponse.getProcessed(); // Can be null
-            Integer quantity = statusResponse.getQuantity();    // Should not be null, but check for safety
-            System.out.println("Polling Batch " + batchId
-                    + ", Status: " + status
-                    + ", Processed: " + (processed != null ? processed : "?")
-                    + "/" + (quantity != null ? quantity : "?"));
-
-            if ("completed".equalsIgnoreCase(status)) {
-                return true;
+            return results;
+        }
+
+        /**
+         * @return One result per distinct input spelling, in input order.
+         */
+        List<EmailCheckResult> perSpelling(List<String> emails, EmailCheckResult[] bySlot) {
+            String[] spellings = emails.toArray(new String[0]);
+            // The rows where the spellings of a slot first occur, chained from the latest to the earliest;
+            // almost every slot has a single spelling
+            int[] lastSpellingRow = new int[distinct.size() + rejected.size()];
+            Arrays.fill(lastSpellingRow, -1);
+            int[] previousSpellingRow = new int[spellings.length];
+            List<EmailCheckResult> results = new ArrayList<>();
+            for (int row = 0; row < spellings.length; row++) {
+                int slot = slotByInput[row];
+                int chain = slot < 0 ? distinct.size() - slot - 1 : slot;
+                int seen = lastSpellingRow[chain];
+                while (seen >= 0 && !spellings[seen].equals(spellings[row])) {
+                    seen = previousSpellingRow[seen];
+                }
+                if (seen < 0) {
+                    previousSpellingRow[row] = lastSpellingRow[chain];
+                    lastSpellingRow[chain] = row;
+                    results.add(resultFor(spellings[row], slot, bySlot));
+                }
+            }
+            return results;
+        }
+
+        /**
+         * Returns the result of a slot under the spelling given by the caller.
+         */
+        private EmailCheckResult resultFor(String original, int slot, EmailCheckResult[] bySlot) {
+            EmailCheckResult result = slot < 0 ? rejected.get(-slot - 1) : bySlot[slot];
+            if (result == null) {
+                return new EmailCheckResult(original, false, false, "Unexpected Error: No result");
             }
-            if ("failed".equalsIgnoreCase(status)) {
-                System.err.println("Batch " + batchId + " failed.");
-                return false; // Batch failed
+            if (!result.email().equals(original)) {
+                return new EmailCheckResult(original, result.isReachable(), result.isSafeToSend(), result.reasonIfNotSafe());
             }
-            // Other status (queued, processing) -> continue polling
-            Thread.sleep(BATCH_POLL_INTERVAL_MS);
+            return result;
+        }
+    }
+
+    private static EmailCheckResult invalidSyntax(String email, String reason) {
+        return new EmailCheckResult(email, false, false, "Invalid Syntax (" + reason + ")");
+    }
+
+    /**
+     * Rejects an address based on what is known about its domain.
+     *
+     * @param email   The address as given by the caller; used in the result.
+     * @param address The normalised address.
+     * @return The result for a rejected address, or null if the address has to be verified.
+     */
+    private EmailCheckResult rejectByDomain(String email, String address, BouncerCheckConfig config) {
+        DomainCache cache = this.domainCache;
+        String domain = cache != null ? DomainInfo.domainOf(address) : null;
+        if (domain == null) {
+            return null;
+        }
+        DomainInfo info = cache.get(domain).orElse(null);
+        if (info == null) {
+            return null;
+        }
+        // Evaluated like the result Bouncer gives for such an address, so a warm cache does not change the outcome
+        if (info.acceptsMail() == YesNoUnknown.NO) {
+            return evaluateBouncerResult(email, domainSnapshot(address, EmailStatus.UNDELIVERABLE, VerificationReason.INVALID_DOMAIN, info), config);
+        }
+        if (config.isBlockDisposable() && info.disposable() == YesNoUnknown.YES) {
+            return evaluateBouncerResult(email, domainSnapshot(address, EmailStatus.RISKY, VerificationReason.LOW_QUALITY, info), config);
+        }
+        if (config.isBlockAcceptAll() && info.acceptAll() == YesNoUnknown.YES) {
+            return evaluateBouncerResult(email, domainSnapshot(address, EmailStatus.RISKY, VerificationReason.LOW_DELIVERABILITY, info), config);
+        }
+        return null;
+    }
+
+    /**
+     * @return A verification result for the address that only contains what is known about its domain.
+     */
+    private static VerificationSnapshot domainSnapshot(String address, EmailStatus status, VerificationReason reason, DomainInfo info) {
+        return new VerificationSnapshot(address, status, reason, info.acceptAll(), info.disposable(), info.free(), null, null);
+    }
+
+    /**
+     * Stores the domain information contained in a verification result in the domain cache.
+     */
+    private void learnDomain(String email, EmailStatus status, VerificationReason reason, Domain domain) {
+        DomainCache cache = this.domainCache;
+        if (cache != null && email != null) {
+            DomainInfo.of(email, status, reason, domain).ifPresent(cache::put);
         }
-        return false; // Timeout
     }
 
     /**
@@ -211,19 +921,16 @@ public class BouncerCheckService {
      */
     private EmailCheckResult evaluateBouncerResult(
             String email,
-            EmailStatus status,
-            VerificationReason reason,
-            Domain domain,
-            Account account,
-            Integer toxicity, // Can be null
+            VerificationSnapshot snapshot,
             BouncerCheckConfig config) {
         // Defensive null-checks for critical input parameters
         Objects.requireNonNull(email, "Email cannot be null in evaluateBouncerResult");
-        Objects.requireNonNull(status, "Status cannot be null in evaluateBouncerResult");
-        // Reason can be null but will be parsed to UNKNOWN by enum
-        // domain, account, toxicity can be null
+        Objects.requireNonNull(snapshot, "Snapshot cannot be null in evaluateBouncerResult");
+        // The snapshot replaces missing reason/domain/account values with UNKNOWN; toxicity can be null
 
-        VerificationReason evalReason = (reason != null) ? reason : VerificationReason.UNKNOWN;
+        EmailStatus status = snapshot.status();
+        VerificationReason evalReason = snapshot.reason();
+        Integer toxicity = snapshot.toxicity();
 
         boolean isReachable = (status == EmailStatus.DELIVERABLE || status == EmailStatus.RISKY);
 
@@ -240,11 +947,11 @@ public class BouncerCheckService {
             reasonIfNotSafe = "High Toxicity Score (" + toxicity + " > " + config.getMaxAllowedToxicity() + ")";
         } else if (status == EmailStatus.RISKY) {
             // Check specific 'risky' reasons
-            if (config.isBlockFullMailbox() && account != null && account.getFullMailbox() == YesNoUnknown.YES) {
+            if (config.isBlockFullMailbox() && snapshot.fullMailbox() == YesNoUnknown.YES) {
                 reasonIfNotSafe = "Risky (Full Mailbox)";
-            } else if (config.isBlockDisposable() && domain != null && domain.getDisposable() == YesNoUnknown.YES) {
+            } else if (config.isBlockDisposable() && snapshot.disposable() == YesNoUnknown.YES) {
                 reasonIfNotSafe = "Risky (Disposable Domain)";
-            } else if (config.isBlockAcceptAll() && domain != null && domain.getAcceptAll() == YesNoUnknown.YES) {
+            } else if (config.isBlockAcceptAll() && snapshot.acceptAll() == YesNoUnknown.YES) {
                 reasonIfNotSafe = "Risky (Accept All Domain)";
             }
             // If no specific risky reason leads to blocking AND status is risky:
@@ -276,21 +983,34 @@ public class BouncerCheckService {
     }
 
     /**
-     * Fills all entries in the result map that don't have a result yet (value is null)
+     * Fallback for addresses that could not be verified because a circuit breaker is open.
+     * Like an unknown status, the result is unsafe unless the config accepts unknown addresses.
+     */
+    private static EmailCheckResult unverified(String email, BouncerCheckConfig config) {
+        boolean isSafe = !config.isTreatUnknownAsUnsafe();
+        return new EmailCheckResult(email, false, isSafe, isSafe ? null : "Unverified (Service Unavailable)");
+    }
+
+    /**
+     * Result for an address whose verification was cancelled before a result arrived.
+     */
+    private static EmailCheckResult cancelled(String email, OperationCancelledException e) {
+        return new EmailCheckResult(email, false, false, e.isDeadlineExceeded() ? "Deadline Exceeded" : "Cancelled");
+    }
+
+    /**
+     * Fills all entries of the given slots that don't have a result yet (value is null)
      * with an error result.
-     * @param resultMap The map with email as key and result as value.
-     * @param emailsToCheck The list of emails whose results should be updated.
+     * @param results The results indexed by slot.
+     * @param slots The slots whose results should be updated.
+     * @param distinct The distinct emails, indexed by slot.
      * @param errorMessage The error message to store in the result.
      */
-    private void updateResultsWithError(Map<String, EmailCheckResult> resultMap, List<String> emailsToCheck, String errorMessage) {
-        for (String email : emailsToCheck) {
-            // Only update if entry exists and value is still null
-            if (resultMap.containsKey(email) && resultMap.get(email) == null) {
-                resultMap.put(email, new EmailCheckResult(email, false, false, errorMessage));
-            }
-            // Optional: warning if an email is not in the map (shouldn't happen due to pre-fill)
-            else if (!resultMap.containsKey(email)) {
-                System.err.println("Warning in updateResultsWithError: Email " + email + " not found in resultMap.");
+    private static void updateResultsWithError(EmailCheckResult[] results, int[] slots, List<String> distinct, String errorMessage) {
+        for (int slot : slots) {
+            // Only update if the value is still null
+            if (results[slot] == null) {
+                results[slot] = new EmailCheckResult(distinct.get(slot), false, false, errorMessage);
             }
         }
     }
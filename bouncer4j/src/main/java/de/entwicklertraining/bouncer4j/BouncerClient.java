@@ -4,10 +4,41 @@ import de.entwicklertraining.api.base.ApiClient;
 import de.entwicklertraining.api.base.ApiClientSettings;
 import de.entwicklertraining.api.base.ApiHttpConfiguration;
 import de.entwicklertraining.bouncer4j.batch.*;
+import de.entwicklertraining.bouncer4j.cache.SingleFlight;
 import de.entwicklertraining.bouncer4j.credits.CheckCreditsRequest;
+import de.entwicklertraining.bouncer4j.credits.CreditGovernor;
+import de.entwicklertraining.bouncer4j.exceptions.BouncerException;
+import de.entwicklertraining.bouncer4j.exceptions.OperationCancelledException;
+import de.entwicklertraining.bouncer4j.resilience.AdaptiveConcurrencyLimiter;
+import de.entwicklertraining.bouncer4j.resilience.CircuitBreaker;
+import de.entwicklertraining.bouncer4j.resilience.HedgingPolicy;
+import de.entwicklertraining.bouncer4j.resilience.RequestScheduler;
+import de.entwicklertraining.bouncer4j.resilience.TokenBucketRateLimiter;
 import de.entwicklertraining.bouncer4j.verify.domain.VerifyDomainRequest;
 import de.entwicklertraining.bouncer4j.verify.email.VerifyEmailRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
 /**
  * Client for the Bouncer email verification API.
  *
@@ -28,6 +59,27 @@ import de.entwicklertraining.bouncer4j.verify.email.VerifyEmailRequest;
 public final class BouncerClient extends ApiClient {
 
     private static final String DEFAULT_BASE_URL = "https://api.usebouncer.com";
+    private static final Duration STREAMING_CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_ERROR_BODY_CHARS = 2048;
+    private static final int STREAMING_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_LIMITED_RETRIES = 5;
+    private static final Duration LIMITED_RETRY_INITIAL_DELAY = Duration.ofSeconds(1);
+    private static final Duration LIMITED_RETRY_MAX_DELAY = Duration.ofSeconds(30);
+    private static final Executor DEFAULT_ASYNC_EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("bouncer-async-", 0).factory());
+
+    private final String baseUrl;
+    private final ApiHttpConfiguration httpConfig;
+    private volatile Duration streamingReadTimeout = Duration.ofMinutes(5);
+    private volatile Executor asyncExecutor = DEFAULT_ASYNC_EXECUTOR;
+    private final Map<EndpointFamily, TokenBucketRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final Map<EndpointFamily, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private volatile AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final SingleFlight<String, BouncerResponse<?>> inFlightRequests = new SingleFlight<>();
+    private volatile boolean requestCoalescing;
+    private volatile CreditGovernor creditGovernor;
+    private volatile RequestScheduler requestScheduler;
+    private volatile HedgingPolicy hedgingPolicy;
 
     /**
      * Creates a new BouncerClient with default settings.
@@ -74,7 +126,13 @@ public final class BouncerClient extends ApiClient {
      * @param customBaseUrl Custom base URL for the API
      */
     public BouncerClient(ApiClientSettings settings, ApiHttpConfiguration httpConfig, String customBaseUrl) {
-        super(settings, buildHttpConfig(httpConfig));
+        this(customBaseUrl, settings, buildHttpConfig(httpConfig));
+    }
+
+    private BouncerClient(String customBaseUrl, ApiClientSettings settings, ApiHttpConfiguration effectiveHttpConfig) {
+        super(settings, effectiveHttpConfig);
+        this.baseUrl = customBaseUrl;
+        this.httpConfig = effectiveHttpConfig;
 
         setBaseUrl(customBaseUrl);
 
@@ -124,6 +182,692 @@ public final class BouncerClient extends ApiClient {
             .build();
     }
 
+    /**
+     * Sends the request once it has passed the client-side limits configured for its endpoint family.
+     *
+     * @param request the request to send
+     * @return the response
+     */
+    public <T extends BouncerResponse<?>> T sendRequest(BouncerRequest<T> request) {
+        return coalesce(request, "send:", () -> dispatch(request, () -> super.sendRequest(request)));
+    }
+
+    /**
+     * Sends the request with exponential backoff once it has passed the client-side limits
+     * configured for its endpoint family.
+     *
+     * <p>If client-side limits apply to the request (see {@link #setRateLimiter}, {@link #setRequestScheduler}
+     * and {@link #setConcurrencyLimiter}), HTTP 429 and 503 are retried here instead of inside {@link ApiClient}:
+     * every attempt takes its own token and concurrency slot, so retries cannot exceed the configured rate,
+     * no slot is held during the backoff pause, and the concurrency limiter sees every rejection. Up to
+     * 5 retries are made, with delays doubling from 1 to at most 30 seconds.
+     *
+     * @param request the request to send
+     * @return the response
+     */
+    public <T extends BouncerResponse<?>> T sendRequestWithExponentialBackoff(BouncerRequest<T> request) {
+        if (!hasClientSideLimits(request)) {
+            return coalesce(request, "backoff:", () -> dispatch(request, () -> super.sendRequestWithExponentialBackoff(request)));
+        }
+        return coalesce(request, "backoff:", () -> dispatch(request, () -> super.sendRequest(request), true));
+    }
+
+    /**
+     * Sends the request like {@link #sendRequest(BouncerRequest)}, but gives up once the token is cancelled:
+     * it stops waiting in the client-side limits and aborts the HTTP call in flight.
+     *
+     * @param request the request to send
+     * @param token   cancels the request, e.g. at a deadline
+     * @return the response
+     * @throws OperationCancelledException if the token was cancelled before the response arrived
+     */
+    public <T extends BouncerResponse<?>> T sendRequest(BouncerRequest<T> request, CancellationToken token) {
+        return cancellable(token, () -> sendRequest(request));
+    }
+
+    /**
+     * Sends the request with exponential backoff, giving up once the token is cancelled; this also ends a
+     * backoff pause, so retries never run past the deadline.
+     *
+     * @param request the request to send
+     * @param token   cancels the request, e.g. at a deadline
+     * @return the response
+     * @throws OperationCancelledException if the token was cancelled before the response arrived
+     */
+    public <T extends BouncerResponse<?>> T sendRequestWithExponentialBackoff(BouncerRequest<T> request, CancellationToken token) {
+        return cancellable(token, () -> sendRequestWithExponentialBackoff(request));
+    }
+
+    /**
+     * Runs the call on the async executor and waits for it until the token is cancelled. On cancellation
+     * the worker is interrupted, which ends its waits in the client-side limits, the backoff pause and
+     * the HTTP call. Without a cancellable token the call runs on the calling thread.
+     */
+    private <R> R cancellable(CancellationToken token, Supplier<R> call) {
+        Objects.requireNonNull(token, "token cannot be null");
+        if (!token.isCancellable()) {
+            return call.get();
+        }
+        token.throwIfCancelled();
+        FutureTask<R> task = new FutureTask<>(call::get);
+        try (CancellationToken.Registration ignored = token.onCancel(() -> task.cancel(true))) {
+            asyncExecutor.execute(task);
+            return task.get();
+        } catch (CancellationException e) {
+            throw token.toException();
+        } catch (ExecutionException e) {
+            if (token.isCancelled()) {
+                throw token.toException(); // The call failed because it was aborted
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new BouncerException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BouncerException("Interrupted while waiting for a response", e);
+        }
+    }
+
+    /**
+     * Lets a request join an identical request already in flight, if coalescing is enabled and the
+     * request has a {@link BouncerRequest#getCoalescingKey() coalescing key}.
+     * Calls with and without backoff are never merged, as they fail differently, and neither are calls of
+     * different traffic classes, so an interactive request never waits in a bulk request's queue.
+     * If the caller running the shared call gives up on it (e.g. its token was cancelled), the callers that
+     * joined it send the request again instead of failing with the aborted call.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends BouncerResponse<?>> T coalesce(BouncerRequest<T> request, String mode, Supplier<T> call) {
+        String key = requestCoalescing ? request.getCoalescingKey() : null;
+        if (key == null) {
+            return call.get();
+        }
+        String flightKey = mode + request.getTrafficClass() + ":" + key;
+        while (true) {
+            AtomicBoolean led = new AtomicBoolean();
+            try {
+                return (T) inFlightRequests.execute(flightKey, () -> {
+                    led.set(true);
+                    try {
+                        return call.get();
+                    } catch (RuntimeException e) {
+                        if (isAbortedByCaller(e)) {
+                            throw new SharedCallAbortedException(e);
+                        }
+                        throw e;
+                    }
+                });
+            } catch (SharedCallAbortedException e) {
+                if (led.get() || Thread.currentThread().isInterrupted()) {
+                    throw e.getCause(); // Our own call was aborted
+                }
+                // Another caller gave up on the shared call; send the request again
+            }
+        }
+    }
+
+    /**
+     * @return true if the call ended because its caller gave up on it (cancelled token or interrupt) rather
+     *         than because of the endpoint; a timeout of the connection still counts as the endpoint's fault
+     */
+    private static boolean isAbortedByCaller(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof OperationCancelledException
+                    || t instanceof InterruptedException
+                    || t instanceof ClosedByInterruptException
+                    || (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes the failure of a shared call that was aborted by the caller running it to {@link #coalesce}.
+     */
+    private static final class SharedCallAbortedException extends RuntimeException {
+        private SharedCallAbortedException(RuntimeException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+
+    /**
+     * Rejects the request at once if the circuit breaker of its endpoint family is open. Otherwise the
+     * request is dispatched and the outcome and duration of the actual call are reported to the breaker.
+     * Calls aborted by their caller are not reported, as they say nothing about the endpoint. Requests that
+     * are not {@link BouncerRequest#isCircuitBreakerGuarded() guarded} bypass the breaker.
+     */
+    private <R> R dispatch(BouncerRequest<?> request, Supplier<R> call) {
+        return dispatch(request, call, false);
+    }
+
+    /**
+     * @param retry true to retry HTTP 429/503 with backoff, passing the client-side limits again for every
+     *              attempt; {@code call} then performs a single attempt
+     */
+    private <R> R dispatch(BouncerRequest<?> request, Supplier<R> call, boolean retry) {
+        CircuitBreaker breaker = circuitBreakers.get(request.getEndpointFamily());
+        if (breaker == null || !request.isCircuitBreakerGuarded()) {
+            return dispatchWithCredits(request, call, retry);
+        }
+        breaker.acquirePermission();
+        AtomicBoolean sent = new AtomicBoolean();
+        try {
+            return dispatchWithCredits(request, () -> {
+                sent.set(true);
+                long start = System.nanoTime();
+                try {
+                    R result = call.get();
+                    breaker.onResult(System.nanoTime() - start, null);
+                    return result;
+                } catch (RuntimeException | Error e) {
+                    if (isAbortedByCaller(e)) {
+                        breaker.releasePermission(); // Says nothing about the health of the endpoint
+                    } else {
+                        breaker.onResult(System.nanoTime() - start, e);
+                    }
+                    throw e;
+                }
+            }, retry);
+        } finally {
+            if (!sent.get()) {
+                breaker.releasePermission();
+            }
+        }
+    }
+
+    /**
+     * Charges the request against the credit governor, if one is set, before it passes the other limits.
+     * Credits of a request that failed before it was sent are refunded. After HTTP 402 the local balance is
+     * emptied; after any other failure of a sent request the balance is fetched again, as the server may
+     * have charged it anyway (e.g. a read timeout after the upload).
+     */
+    private <R> R dispatchWithCredits(BouncerRequest<?> request, Supplier<R> call, boolean retry) {
+        CreditGovernor governor = creditGovernor;
+        int credits = governor != null ? request.getCreditCost() : 0;
+        if (credits == 0) {
+            return retry ? retryWithinLimits(request, call) : dispatchWithinLimits(request, call);
+        }
+        if (credits < 0) {
+            throw new IllegalStateException("The credit cost of " + request.getRelativeUrl()
+                    + " is not known up front; pass the addresses as a collection when a credit governor is set");
+        }
+        try {
+            governor.acquire(credits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BouncerException("Interrupted while waiting for credits", e);
+        }
+        AtomicBoolean sent = new AtomicBoolean();
+        Supplier<R> charged = () -> {
+            sent.set(true);
+            return call.get();
+        };
+        try {
+            return retry ? retryWithinLimits(request, charged) : dispatchWithinLimits(request, charged);
+        } catch (HTTP_402_PaymentRequiredException e) {
+            governor.onPaymentRequired();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            if (sent.get()) {
+                governor.resync();
+            } else {
+                governor.refund(credits);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if the request passes a client-side rate or concurrency limit before it is sent.
+     */
+    private boolean hasClientSideLimits(BouncerRequest<?> request) {
+        return requestScheduler != null || concurrencyLimiter != null || rateLimiters.containsKey(request.getEndpointFamily());
+    }
+
+    /**
+     * Performs single attempts through the client-side limits until one succeeds, retrying HTTP 429/503
+     * with exponential backoff. The backoff pause ends early when the thread is interrupted.
+     */
+    private <R> R retryWithinLimits(BouncerRequest<?> request, Supplier<R> attempt) {
+        long delayMillis = LIMITED_RETRY_INITIAL_DELAY.toMillis();
+        for (int retries = 0; ; retries++) {
+            try {
+                return dispatchWithinLimits(request, attempt);
+            } catch (HTTP_429_RateLimitOrQuotaException | HTTP_503_ServerUnavailableException e) {
+                if (retries >= MAX_LIMITED_RETRIES) {
+                    throw e;
+                }
+                System.err.println("Request to " + request.getRelativeUrl() + " failed (" + e.getMessage()
+                        + "), retrying in " + delayMillis + " ms");
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new BouncerException("Interrupted while waiting to retry " + request.getRelativeUrl(), interrupted);
+                }
+                delayMillis = Math.min(delayMillis * 2, LIMITED_RETRY_MAX_DELAY.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Passes a request through the client-side limits and performs the actual call.
+     * With a request scheduler, the request first waits for the rate share and a slot of its traffic class.
+     */
+    private <R> R dispatchWithinLimits(BouncerRequest<?> request, Supplier<R> call) {
+        RequestScheduler scheduler = requestScheduler;
+        TrafficClass trafficClass = request.getTrafficClass();
+        TokenBucketRateLimiter rateLimiter = rateLimiters.get(request.getEndpointFamily());
+        if (scheduler != null) {
+            try {
+                scheduler.awaitRate(trafficClass, rateLimiter);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BouncerException("Interrupted while waiting for the " + trafficClass + " rate limit", e);
+            }
+        }
+        if (rateLimiter != null) {
+            try {
+                rateLimiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BouncerException("Interrupted while waiting for the " + request.getEndpointFamily() + " rate limit", e);
+            }
+        }
+
+        if (scheduler == null) {
+            return callWithinConcurrencyLimit(call);
+        }
+        try {
+            scheduler.acquire(trafficClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BouncerException("Interrupted while waiting for a " + trafficClass + " slot", e);
+        }
+        try {
+            return callWithinConcurrencyLimit(call);
+        } finally {
+            scheduler.release(trafficClass);
+        }
+    }
+
+    /**
+     * Performs the call within the adaptive concurrency limit, if one is set.
+     * The limiter learns from the outcome: HTTP 429/503 shrink the limit, successes grow it.
+     */
+    private <R> R callWithinConcurrencyLimit(Supplier<R> call) {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+        if (limiter == null) {
+            return call.get();
+        }
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BouncerException("Interrupted while waiting for a concurrency slot", e);
+        }
+        AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+        try {
+            R result = call.get();
+            outcome = AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+            return result;
+        } catch (HTTP_429_RateLimitOrQuotaException | HTTP_503_ServerUnavailableException e) {
+            outcome = AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+            throw e;
+        } finally {
+            permit.release(outcome);
+        }
+    }
+
+    /**
+     * Enables sharing of calls between concurrent identical requests: while an email or domain
+     * verification is in flight, further requests for the same (case-insensitive) address or domain
+     * wait for it and receive the same response or exception instead of being charged again.
+     * Disabled by default.
+     *
+     * @param requestCoalescing true to coalesce concurrent identical verifications
+     */
+    public void setRequestCoalescing(boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    /**
+     * @return The number of requests that were answered by an identical request in flight.
+     */
+    public long getCoalescedRequestCount() {
+        return inFlightRequests.getSharedCount();
+    }
+
+    /**
+     * Checks every request against the credit balance of the account before it is sent: requests the
+     * account cannot afford are rejected with an
+     * {@link de.entwicklertraining.bouncer4j.exceptions.InsufficientCreditsException} (or wait, depending
+     * on the governor) instead of failing with HTTP 402 after the upload.
+     *
+     * @param creditGovernor the governor, or null to send requests without checking the balance
+     */
+    public void setCreditGovernor(CreditGovernor creditGovernor) {
+        this.creditGovernor = creditGovernor;
+    }
+
+    /**
+     * @return the credit governor, or null if the balance is not checked
+     */
+    public CreditGovernor getCreditGovernor() {
+        return creditGovernor;
+    }
+
+    /**
+     * Limits how many requests of an endpoint family may start per second, so the client runs
+     * just under the account quota instead of provoking HTTP 429 responses.
+     *
+     * @param family      the endpoint family to limit
+     * @param rateLimiter the limiter, or null to remove the limit
+     */
+    public void setRateLimiter(EndpointFamily family, TokenBucketRateLimiter rateLimiter) {
+        Objects.requireNonNull(family, "family cannot be null");
+        if (rateLimiter == null) {
+            rateLimiters.remove(family);
+        } else {
+            rateLimiters.put(family, rateLimiter);
+        }
+    }
+
+    /**
+     * @param family the endpoint family
+     * @return the rate limiter of the family, or null if it is not limited
+     */
+    public TokenBucketRateLimiter getRateLimiter(EndpointFamily family) {
+        return rateLimiters.get(family);
+    }
+
+    /**
+     * Protects an endpoint family with a circuit breaker: while the endpoint is failing or too slow,
+     * requests fail at once with a {@link de.entwicklertraining.bouncer4j.exceptions.CircuitOpenException}
+     * instead of waiting for timeouts and retries. Calls on an existing batch are never rejected
+     * (see {@link BouncerRequest#isCircuitBreakerGuarded()}).
+     *
+     * @param family         the endpoint family to protect
+     * @param circuitBreaker the breaker, or null to remove it
+     */
+    public void setCircuitBreaker(EndpointFamily family, CircuitBreaker circuitBreaker) {
+        Objects.requireNonNull(family, "family cannot be null");
+        if (circuitBreaker == null) {
+            circuitBreakers.remove(family);
+        } else {
+            circuitBreakers.put(family, circuitBreaker);
+        }
+    }
+
+    /**
+     * @param family the endpoint family
+     * @return the circuit breaker of the family, or null if it has none
+     */
+    public CircuitBreaker getCircuitBreaker(EndpointFamily family) {
+        return circuitBreakers.get(family);
+    }
+
+    /**
+     * Limits the number of requests in flight across all endpoints. The limiter adapts itself to the
+     * capacity of the server (AIMD), so throughput settles just below the point where Bouncer starts
+     * answering with HTTP 429 or 503.
+     *
+     * @param concurrencyLimiter the limiter, or null to remove the limit
+     */
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * @return the concurrency limiter, or null if the number of requests in flight is not limited
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Puts a scheduler with priority lanes in front of all requests: interactive requests keep a reserved
+     * share of the concurrency and rate budget, bulk requests (batch endpoints and verifications marked with
+     * {@link TrafficClass#BULK}) use the rest. See {@link BouncerRequest#getTrafficClass()}.
+     *
+     * @param requestScheduler the scheduler, or null to send requests in arrival order
+     */
+    public void setRequestScheduler(RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+    }
+
+    /**
+     * @return the request scheduler, or null if requests are not prioritised
+     */
+    public RequestScheduler getRequestScheduler() {
+        return requestScheduler;
+    }
+
+    /**
+     * Hedges interactive email verifications sent with {@code execute()}: if a verification takes longer
+     * than usual, a second one with a shorter verification timeout is sent and the first answer wins.
+     *
+     * @param hedgingPolicy the policy, or null to never hedge
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * @return the hedging policy, or null if verifications are not hedged
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Sets the executor on which the {@code executeAsync()} variants of all request builders run.
+     * By default every asynchronous request runs on its own virtual thread, so thousands of
+     * concurrent requests only occupy a handful of carrier threads while they wait for the network.
+     *
+     * @param asyncExecutor the executor for asynchronous requests
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = Objects.requireNonNull(asyncExecutor, "asyncExecutor cannot be null");
+    }
+
+    /**
+     * @return the executor on which asynchronous requests run
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Sends the request asynchronously on the {@link #getAsyncExecutor() async executor}.
+     *
+     * @param request the request to send
+     * @return a future completing with the response, or exceptionally with the same exceptions
+     *         {@code sendRequest} would throw
+     */
+    public <T extends BouncerResponse<?>> CompletableFuture<T> sendRequestAsync(BouncerRequest<T> request) {
+        return CompletableFuture.supplyAsync(() -> sendRequest(request), asyncExecutor);
+    }
+
+    /**
+     * Sends the request asynchronously, retrying with exponential backoff.
+     *
+     * @param request the request to send
+     * @return a future completing with the response
+     */
+    public <T extends BouncerResponse<?>> CompletableFuture<T> sendRequestWithExponentialBackoffAsync(BouncerRequest<T> request) {
+        return CompletableFuture.supplyAsync(() -> sendRequestWithExponentialBackoff(request), asyncExecutor);
+    }
+
+    /**
+     * Sets the read timeout for streaming transfers (default 5 minutes).
+     *
+     * @param streamingReadTimeout maximum time to wait for data on a streaming connection
+     */
+    public void setStreamingReadTimeout(Duration streamingReadTimeout) {
+        this.streamingReadTimeout = Objects.requireNonNull(streamingReadTimeout, "streamingReadTimeout cannot be null");
+    }
+
+    /**
+     * Sends a request without a body and hands the raw response body stream to the given handler
+     * instead of reading the whole body into a string first.
+     *
+     * @see #sendStreamingRequest(BouncerRequest, RequestBodyWriter, ResponseBodyHandler)
+     */
+    public <R> R sendStreamingRequest(BouncerRequest<?> request, ResponseBodyHandler<R> handler) {
+        return sendStreamingRequest(request, null, handler);
+    }
+
+    /**
+     * Sends a request whose body is written directly to the connection and hands the raw response
+     * body stream to the given handler. Neither body is ever held in memory as a whole. Used for
+     * transfers whose size grows with the batch, e.g. {@link CreateBatchRequest.Builder#executeStreaming()}
+     * and {@link DownloadBatchResultsRequest.Builder#stream}.
+     *
+     * <p>Streaming requests bypass the hooks and retry handling of {@link ApiClient};
+     * HTTP errors are mapped to the same exceptions as regular requests.
+     *
+     * @param request    the request to send (only URL, method and content type are used)
+     * @param bodyWriter writes the request body in chunked transfer mode, or null for no body
+     * @param handler    reads the response body; the stream is closed afterwards
+     * @return the value returned by the handler
+     */
+    public <R> R sendStreamingRequest(BouncerRequest<?> request, RequestBodyWriter bodyWriter, ResponseBodyHandler<R> handler) {
+        return sendStreamingRequest(request, bodyWriter, handler, CancellationToken.none());
+    }
+
+    /**
+     * Sends a streaming request that is aborted once the token is cancelled: the connection is closed and
+     * its connect and read timeouts never reach past the deadline of the token.
+     *
+     * @see #sendStreamingRequest(BouncerRequest, RequestBodyWriter, ResponseBodyHandler)
+     * @throws OperationCancelledException if the token was cancelled before the handler returned
+     */
+    public <R> R sendStreamingRequest(BouncerRequest<?> request, RequestBodyWriter bodyWriter, ResponseBodyHandler<R> handler,
+                                      CancellationToken token) {
+        Objects.requireNonNull(request, "request cannot be null");
+        Objects.requireNonNull(handler, "handler cannot be null");
+        return cancellable(token, () -> dispatch(request, () -> executeStreamingRequest(request, bodyWriter, handler, token)));
+    }
+
+    private <R> R executeStreamingRequest(BouncerRequest<?> request, RequestBodyWriter bodyWriter, ResponseBodyHandler<R> handler,
+                                          CancellationToken token) {
+        HttpURLConnection connection = null;
+        CancellationToken.Registration abort = null;
+        try {
+            connection = (HttpURLConnection) URI.create(baseUrl + request.getRelativeUrl()).toURL().openConnection();
+            connection.setRequestMethod(request.getHttpMethod());
+            connection.setConnectTimeout(timeoutMillis(STREAMING_CONNECT_TIMEOUT, token));
+            connection.setReadTimeout(timeoutMillis(streamingReadTimeout, token));
+            // Blocking socket I/O ignores interrupts; closing the connection ends it
+            abort = token.onCancel(connection::disconnect);
+            connection.setRequestProperty("Accept", "application/json");
+            connection.setRequestProperty("Content-Type", request.getContentType());
+            for (Map.Entry<String, String> header : httpConfig.getGlobalHeaders().entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (bodyWriter != null) {
+                connection.setDoOutput(true);
+                connection.setChunkedStreamingMode(STREAMING_CHUNK_SIZE);
+                try (OutputStream out = connection.getOutputStream()) {
+                    bodyWriter.write(out);
+                }
+            }
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode >= 400) {
+                throw createHttpException(statusCode, readErrorBody(connection));
+            }
+            try (InputStream in = connection.getInputStream()) {
+                return handler.read(in);
+            }
+        } catch (IOException e) {
+            if (token.isCancelled()) {
+                throw token.toException(); // The connection was closed because the token was cancelled
+            }
+            throw new BouncerException("Streaming request to " + request.getRelativeUrl() + " failed: " + e.getMessage(), e);
+        } finally {
+            if (abort != null) {
+                abort.close();
+            }
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * @return The timeout in milliseconds, shortened to the time left until the deadline of the token.
+     */
+    private static int timeoutMillis(Duration timeout, CancellationToken token) {
+        long millis = Math.min(timeout.toMillis(), token.getRemainingNanos() / 1_000_000);
+        // 0 would mean "no timeout" to HttpURLConnection
+        return (int) Math.max(1, Math.min(millis, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Maps an HTTP error status of a streaming request to the exception registered for regular requests.
+     */
+    private static RuntimeException createHttpException(int statusCode, String body) {
+        return switch (statusCode) {
+            case 400 -> new HTTP_400_RequestRejectedException("Invalid request (HTTP 400): " + body);
+            case 401 -> new HTTP_401_AuthorizationException("Authentication failed (HTTP 401): " + body);
+            case 402 -> new HTTP_402_PaymentRequiredException("Payment required (HTTP 402): " + body);
+            case 403 -> new HTTP_403_PermissionDeniedException("Forbidden (HTTP 403): " + body);
+            case 404 -> new HTTP_404_NotFoundException("Not found (HTTP 404): " + body);
+            case 429 -> new HTTP_429_RateLimitOrQuotaException("Rate limit or quota exceeded (HTTP 429): " + body);
+            case 503 -> new HTTP_503_ServerUnavailableException("Server overloaded (HTTP 503): " + body);
+            default -> new BouncerException("Unexpected HTTP status " + statusCode + ": " + body);
+        };
+    }
+
+    private static String readErrorBody(HttpURLConnection connection) {
+        try (InputStream err = connection.getErrorStream()) {
+            if (err == null) {
+                return "";
+            }
+            byte[] bytes = err.readNBytes(MAX_ERROR_BODY_CHARS);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Writes the body of a streaming request.
+     */
+    @FunctionalInterface
+    public interface RequestBodyWriter {
+        void write(OutputStream body) throws IOException;
+    }
+
+    /**
+     * Reads the body of a streaming response.
+     */
+    @FunctionalInterface
+    public interface ResponseBodyHandler<R> {
+        R read(InputStream body) throws IOException;
+    }
+
     // Credits endpoint
     public CheckCreditsRequest.Builder credits() {
         return CheckCreditsRequest.builder(this);
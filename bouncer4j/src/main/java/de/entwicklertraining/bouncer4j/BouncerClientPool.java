@@ -0,0 +1,321 @@
+package de.entwicklertraining.bouncer4j;
+
+import de.entwicklertraining.api.base.ApiClient;
+import de.entwicklertraining.bouncer4j.credits.CreditGovernor;
+import de.entwicklertraining.bouncer4j.exceptions.BouncerException;
+import de.entwicklertraining.bouncer4j.exceptions.InsufficientCreditsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Spreads requests over several Bouncer accounts, one {@link BouncerClient} per API key.
+ *
+ * <p>Every call is routed to one key, chosen by smooth weighted round-robin or by the lowest load
+ * (requests in flight per weight). A key that answers with HTTP 429 is drained for
+ * {@code rateLimitDrain}, one that answers with HTTP 402 for {@code paymentDrain}; the call is then
+ * repeated on the next key, each key being tried at most once. With {@code trackCredits} every key gets
+ * its own {@link CreditGovernor}, and keys without credits are skipped.
+ *
+ * <p>Calls that belong together must run on the same key, e.g. all requests of a batch, since batch IDs
+ * are only valid for the account that created them. Pass them to {@link #execute(Function)} as one call.
+ *
+ * <pre>{@code
+ * BouncerClientPool pool = BouncerClientPool.builder()
+ *         .key(System.getenv("BOUNCER_KEY_A"), 2)
+ *         .key(System.getenv("BOUNCER_KEY_B"), 1)
+ *         .strategy(BouncerClientPool.Strategy.LEAST_LOADED)
+ *         .build();
+ * VerifyEmailResponse response = pool.execute(client -> client.verify().email().email("john@example.com").execute());
+ * }</pre>
+ */
+public final class BouncerClientPool {
+
+    /**
+     * How the key for the next call is chosen.
+     */
+    public enum Strategy {
+        /** Keys take turns in proportion to their weights. */
+        WEIGHTED_ROUND_ROBIN,
+        /** The key with the fewest requests in flight relative to its weight. */
+        LEAST_LOADED
+    }
+
+    private final List<Member> members;
+    private final Strategy strategy;
+    private final Duration rateLimitDrain;
+    private final Duration paymentDrain;
+    private final ReentrantLock selectionLock = new ReentrantLock();
+
+    private static final class Member {
+        private final String name;
+        private final BouncerClient client;
+        private final int weight;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder drains = new LongAdder();
+        private volatile long drainedUntilNanos;
+        private volatile boolean drained;
+        private long currentWeight; // guarded by selectionLock
+
+        private Member(String name, BouncerClient client, int weight) {
+            this.name = name;
+            this.client = client;
+            this.weight = weight;
+        }
+
+        private boolean isAvailable(long now) {
+            if (drained && now - drainedUntilNanos < 0) {
+                return false;
+            }
+            CreditGovernor governor = client.getCreditGovernor();
+            return governor == null || governor.getAvailableCredits() != 0;
+        }
+    }
+
+    private BouncerClientPool(Builder builder) {
+        if (builder.members.isEmpty()) {
+            throw new IllegalArgumentException("At least one API key is required");
+        }
+        this.members = List.copyOf(builder.members);
+        this.strategy = builder.strategy;
+        this.rateLimitDrain = builder.rateLimitDrain;
+        this.paymentDrain = builder.paymentDrain;
+        if (builder.trackCredits) {
+            for (Member member : members) {
+                if (member.client.getCreditGovernor() == null) {
+                    member.client.setCreditGovernor(CreditGovernor.builder(member.client).build());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the call with the client of one key. If the key is rate limited (HTTP 429) or out of credits
+     * (HTTP 402 or {@link InsufficientCreditsException}), the call is repeated with the next key.
+     *
+     * @param call The requests to send; all of them run on the same key.
+     * @return The result of the call.
+     * @throws BouncerException if no key is available; other exceptions of the call are passed through,
+     *                          as is the exception of the last key tried.
+     */
+    public <T> T execute(Function<BouncerClient, T> call) {
+        Objects.requireNonNull(call, "call cannot be null");
+        List<Member> tried = new ArrayList<>(members.size());
+        RuntimeException lastFailure = null;
+        while (true) {
+            Member member = select(tried);
+            if (member == null) {
+                if (lastFailure != null) {
+                    throw lastFailure;
+                }
+                throw new BouncerException("No API key available: all " + members.size() + " keys are drained or out of credits");
+            }
+            tried.add(member);
+            member.inFlight.incrementAndGet();
+            member.calls.increment();
+            try {
+                return call.apply(member.client);
+            } catch (ApiClient.HTTP_429_RateLimitOrQuotaException e) {
+                drain(member, rateLimitDrain, "rate limited");
+                lastFailure = e;
+            } catch (ApiClient.HTTP_402_PaymentRequiredException e) {
+                drain(member, paymentDrain, "out of credits");
+                lastFailure = e;
+            } catch (InsufficientCreditsException e) {
+                lastFailure = e; // The governor of the key already knows; no need to drain
+            } finally {
+                member.inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return The next key according to the strategy, or null if none of the untried keys is available.
+     */
+    private Member select(List<Member> tried) {
+        long now = System.nanoTime();
+        selectionLock.lock();
+        try {
+            Member best = null;
+            if (strategy == Strategy.WEIGHTED_ROUND_ROBIN) {
+                // Smooth weighted round-robin: the key with the highest current weight wins and pays the total
+                int totalWeight = 0;
+                for (Member member : members) {
+                    if (tried.contains(member) || !member.isAvailable(now)) {
+                        continue;
+                    }
+                    member.currentWeight += member.weight;
+                    totalWeight += member.weight;
+                    if (best == null || member.currentWeight > best.currentWeight) {
+                        best = member;
+                    }
+                }
+                if (best != null) {
+                    best.currentWeight -= totalWeight;
+                }
+            } else {
+                for (Member member : members) {
+                    if (tried.contains(member) || !member.isAvailable(now)) {
+                        continue;
+                    }
+                    // inFlight / weight < best.inFlight / best.weight, without division
+                    if (best == null || (long) member.inFlight.get() * best.weight < (long) best.inFlight.get() * member.weight) {
+                        best = member;
+                    }
+                }
+            }
+            return best;
+        } finally {
+            selectionLock.unlock();
+        }
+    }
+
+    private void drain(Member member, Duration duration, String reason) {
+        member.drainedUntilNanos = System.nanoTime() + duration.toNanos();
+        member.drained = true;
+        member.drains.increment();
+        System.err.println("API key " + member.name + " is " + reason + "; not using it for " + duration.toSeconds() + "s.");
+    }
+
+    /**
+     * @return The clients of all keys, in the order they were added, e.g. to configure their limits.
+     */
+    public List<BouncerClient> getClients() {
+        List<BouncerClient> clients = new ArrayList<>(members.size());
+        for (Member member : members) {
+            clients.add(member.client);
+        }
+        return clients;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return A snapshot of the state of every key, in the order they were added.
+     */
+    public List<KeyStats> getStats() {
+        long now = System.nanoTime();
+        List<KeyStats> stats = new ArrayList<>(members.size());
+        for (Member member : members) {
+            CreditGovernor governor = member.client.getCreditGovernor();
+            stats.add(new KeyStats(
+                    member.name,
+                    member.weight,
+                    member.inFlight.get(),
+                    member.calls.sum(),
+                    member.drains.sum(),
+                    member.drained && now - member.drainedUntilNanos < 0,
+                    governor != null ? governor.getAvailableCredits() : -1));
+        }
+        return stats;
+    }
+
+    /**
+     * State of one key of the pool.
+     *
+     * @param name             The name of the key in log messages ("key 1", "key 2", ...).
+     * @param weight           The weight of the key.
+     * @param inFlight         Calls currently running on the key.
+     * @param calls            Calls routed to the key since creation.
+     * @param drains           How often the key was drained after HTTP 429 or 402.
+     * @param drained          Whether the key is drained right now.
+     * @param availableCredits The local credit balance, or -1 if credits are not tracked or not known yet.
+     */
+    public record KeyStats(String name, int weight, int inFlight, long calls, long drains, boolean drained, long availableCredits) {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private final List<Member> members = new ArrayList<>();
+        private Strategy strategy = Strategy.WEIGHTED_ROUND_ROBIN;
+        private Duration rateLimitDrain = Duration.ofSeconds(30);
+        private Duration paymentDrain = Duration.ofMinutes(15);
+        private boolean trackCredits;
+
+        /**
+         * Adds an API key with weight 1.
+         */
+        public Builder key(String apiKey) {
+            return key(apiKey, 1);
+        }
+
+        /**
+         * Adds an API key; a key with weight 2 receives twice as many calls as a key with weight 1.
+         */
+        public Builder key(String apiKey, int weight) {
+            if (apiKey == null || apiKey.isBlank()) {
+                throw new IllegalArgumentException("apiKey cannot be blank");
+            }
+            return client(new BouncerClient(apiKey), weight);
+        }
+
+        /**
+         * Adds a client created by the caller, e.g. with its own settings or base URL.
+         */
+        public Builder client(BouncerClient client, int weight) {
+            Objects.requireNonNull(client, "client cannot be null");
+            if (weight <= 0) {
+                throw new IllegalArgumentException("weight must be positive");
+            }
+            members.add(new Member("key " + (members.size() + 1), client, weight));
+            return this;
+        }
+
+        /**
+         * How the key for the next call is chosen (default {@link Strategy#WEIGHTED_ROUND_ROBIN}).
+         */
+        public Builder strategy(Strategy strategy) {
+            this.strategy = Objects.requireNonNull(strategy, "strategy cannot be null");
+            return this;
+        }
+
+        /**
+         * How long a key is skipped after HTTP 429 (default 30 seconds).
+         */
+        public Builder rateLimitDrain(Duration rateLimitDrain) {
+            this.rateLimitDrain = requirePositive(rateLimitDrain, "rateLimitDrain");
+            return this;
+        }
+
+        /**
+         * How long a key is skipped after HTTP 402 (default 15 minutes).
+         */
+        public Builder paymentDrain(Duration paymentDrain) {
+            this.paymentDrain = requirePositive(paymentDrain, "paymentDrain");
+            return this;
+        }
+
+        /**
+         * Gives every key without a {@link CreditGovernor} one with default settings, so keys without
+         * credits are skipped before a request is sent (default false).
+         */
+        public Builder trackCredits(boolean trackCredits) {
+            this.trackCredits = trackCredits;
+            return this;
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            Objects.requireNonNull(duration, name + " cannot be null");
+            if (duration.isNegative() || duration.isZero() || duration.compareTo(Duration.ofDays(1)) > 0) {
+                throw new IllegalArgumentException(name + " must be positive and at most 1 day");
+            }
+            return duration;
+        }
+
+        public BouncerClientPool build() {
+            return new BouncerClientPool(this);
+        }
+    }
+}
@@ -19,6 +19,49 @@ public abstract class BouncerRequest<T extends BouncerResponse<?>> extends ApiRe
      */
     public abstract String getRelativeUrl();
 
+    /**
+     * Returns the endpoint family this request belongs to, used to select client-side limits.
+     * @return the endpoint family
+     */
+    public abstract EndpointFamily getEndpointFamily();
+
+    /**
+     * Returns the priority class of this request (see {@link BouncerClient#setRequestScheduler}).
+     * @return {@link TrafficClass#BULK} for batch endpoints, {@link TrafficClass#INTERACTIVE} for all others
+     */
+    public TrafficClass getTrafficClass() {
+        return getEndpointFamily() == EndpointFamily.BATCH ? TrafficClass.BULK : TrafficClass.INTERACTIVE;
+    }
+
+    /**
+     * Returns a key shared by all requests that are interchangeable, so that concurrent identical
+     * requests can be answered by one call (see {@link BouncerClient#setRequestCoalescing(boolean)}).
+     * @return the key, or null if the request must always be sent on its own
+     */
+    public String getCoalescingKey() {
+        return null;
+    }
+
+    /**
+     * Returns the number of credits the request is charged, used for client-side admission control
+     * (see {@link BouncerClient#setCreditGovernor(de.entwicklertraining.bouncer4j.credits.CreditGovernor)}).
+     * @return the cost in credits, 0 if the request is free, or -1 if it is charged but its cost is not known
+     *         up front; the governor rejects such requests
+     */
+    public int getCreditCost() {
+        return 0;
+    }
+
+    /**
+     * Returns whether the circuit breaker of the endpoint family guards this request
+     * (see {@link BouncerClient#setCircuitBreaker}).
+     * @return true by default; false for requests on a batch that already exists, so a paid batch can still
+     *         be polled, downloaded and deleted while the circuit is open
+     */
+    public boolean isCircuitBreakerGuarded() {
+        return true;
+    }
+
     /**
      * Returns the HTTP method for this request.
      * @return the HTTP method (GET, POST, DELETE, etc.)
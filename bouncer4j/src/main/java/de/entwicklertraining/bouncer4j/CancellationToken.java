@@ -0,0 +1,269 @@
+package de.entwicklertraining.bouncer4j;
+
+import de.entwicklertraining.bouncer4j.exceptions.OperationCancelledException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lets the caller of a long-running operation give up on it: by calling {@link #cancel()}, or by a deadline
+ * after which the token cancels itself.
+ *
+ * <p>Operations that accept a token stop waiting in client-side queues, abort the HTTP call in flight,
+ * stop polling and delete the batch they created as soon as the token is cancelled. Waits never last
+ * beyond the deadline, also inside retries with exponential backoff.
+ *
+ * <pre>{@code
+ * List<EmailCheckResult> results = service.checkBatchEmails(emails, config,
+ *         BouncerCheckService.DEFAULT_BATCH_CHUNK_SIZE, CancellationToken.withTimeout(Duration.ofMinutes(10)));
+ * }</pre>
+ */
+public final class CancellationToken {
+
+    private static final CancellationToken NONE = new CancellationToken(null);
+
+    /** Cancels tokens whose deadline has passed. */
+    private static final ScheduledThreadPoolExecutor DEADLINES = createDeadlineScheduler();
+
+    private final Instant deadline;
+    private final long deadlineNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private boolean cancelled;
+    private boolean deadlineExceeded;
+    private ScheduledFuture<?> deadlineTask;
+
+    private CancellationToken(Instant deadline) {
+        this.deadline = deadline;
+        this.deadlineNanos = deadline != null
+                ? System.nanoTime() + Math.max(0, Duration.between(Instant.now(), deadline).toNanos())
+                : 0;
+    }
+
+    private static ScheduledThreadPoolExecutor createDeadlineScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "bouncer-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * @return A token that is never cancelled; operations behave exactly as without a token.
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+
+    /**
+     * @return A token without a deadline that is cancelled by calling {@link #cancel()}.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(null);
+    }
+
+    /**
+     * @param timeout How long the operation may take from now.
+     * @return A token that cancels itself once the timeout has passed; it can also be cancelled earlier.
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout cannot be null");
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+        return withDeadline(Instant.now().plus(timeout));
+    }
+
+    /**
+     * @param deadline The point in time by which the operation has to end.
+     * @return A token that cancels itself at the deadline; it can also be cancelled earlier.
+     */
+    public static CancellationToken withDeadline(Instant deadline) {
+        Objects.requireNonNull(deadline, "deadline cannot be null");
+        CancellationToken token = new CancellationToken(deadline);
+        long delayNanos = token.getRemainingNanos();
+        token.lock.lock();
+        try {
+            token.deadlineTask = DEADLINES.schedule(token::expire, delayNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            token.lock.unlock();
+        }
+        return token;
+    }
+
+    /**
+     * Creates a token for a part of the operation, e.g. one of two requests racing each other: it has the
+     * same deadline and is cancelled together with this token, but cancelling it leaves this token untouched.
+     *
+     * @return A new child token.
+     */
+    public CancellationToken child() {
+        CancellationToken child = deadline != null ? withDeadline(deadline) : create();
+        Registration registration = onCancel(() -> child.cancel(isDeadlineExceeded()));
+        child.onCancel(registration::close); // Drops the callback once the child is done
+        return child;
+    }
+
+    /**
+     * Cancels the token and runs all registered callbacks. Calling it again has no effect.
+     */
+    public void cancel() {
+        cancel(false);
+    }
+
+    private void expire() {
+        cancel(true);
+    }
+
+    private void cancel(boolean byDeadline) {
+        if (this == NONE) {
+            return;
+        }
+        List<Runnable> toRun;
+        lock.lock();
+        try {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            deadlineExceeded = byDeadline;
+            if (deadlineTask != null && !byDeadline) {
+                deadlineTask.cancel(false);
+            }
+            toRun = new ArrayList<>(callbacks);
+            callbacks.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (Runnable callback : toRun) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                System.err.println("Cancellation callback failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return true if the token was cancelled or its deadline has passed.
+     */
+    public boolean isCancelled() {
+        if (deadline != null && getRemainingNanos() == 0) {
+            expire(); // The scheduler may not have run yet
+        }
+        lock.lock();
+        try {
+            return cancelled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the token was cancelled because its deadline passed, not by {@link #cancel()}.
+     */
+    public boolean isDeadlineExceeded() {
+        isCancelled();
+        lock.lock();
+        try {
+            return deadlineExceeded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the token can be cancelled at all, i.e. it is not {@link #none()}.
+     */
+    public boolean isCancellable() {
+        return this != NONE;
+    }
+
+    /**
+     * @return The deadline, or null if the token has none.
+     */
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * @return The time left until the deadline (zero once it has passed), or {@link Long#MAX_VALUE}
+     *         nanoseconds if the token has no deadline.
+     */
+    public long getRemainingNanos() {
+        return deadline != null ? Math.max(0, deadlineNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @throws OperationCancelledException if the token is cancelled.
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw toException();
+        }
+    }
+
+    /**
+     * @return The exception describing why the token was cancelled.
+     */
+    public OperationCancelledException toException() {
+        boolean byDeadline = isDeadlineExceeded();
+        return new OperationCancelledException(byDeadline,
+                byDeadline ? "Deadline " + deadline + " exceeded" : "Operation cancelled");
+    }
+
+    /**
+     * Runs the callback when the token is cancelled, or right away if it already is. The callback runs on the
+     * thread cancelling the token, or on an internal scheduler thread at the deadline, so it must not block.
+     *
+     * @param callback e.g. aborts a connection or cancels a future
+     * @return A registration; close it once the guarded work is done, so the callback is dropped.
+     */
+    public Registration onCancel(Runnable callback) {
+        Objects.requireNonNull(callback, "callback cannot be null");
+        if (this == NONE) {
+            return () -> { };
+        }
+        lock.lock();
+        try {
+            if (!cancelled) {
+                callbacks.add(callback);
+                return () -> {
+                    lock.lock();
+                    try {
+                        callbacks.remove(callback);
+                    } finally {
+                        lock.unlock();
+                    }
+                };
+            }
+        } finally {
+            lock.unlock();
+        }
+        callback.run();
+        return () -> { };
+    }
+
+    /**
+     * A callback registered with {@link #onCancel(Runnable)}.
+     */
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+
+        /**
+         * Drops the callback; it will not run anymore.
+         */
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,369 @@
+package de.entwicklertraining.bouncer4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects single email checks and sends them to Bouncer as batch jobs (micro-batching).
+ *
+ * <p>Every {@link #submit(String)} adds the address to the current window. A window is sent with
+ * {@link BouncerCheckService#checkBatchEmails(List, BouncerCheckConfig)} when it reaches {@code maxBatchSize}
+ * addresses or when {@code lingerTime} has passed since its first address. Windows with fewer than
+ * {@code minBatchSize} addresses are verified with parallel single calls instead, since a batch job
+ * has a queueing delay of its own.
+ *
+ * <p>If a result has not arrived within the {@code latencyBudget} and the window has not been uploaded yet
+ * (e.g. because it waits for credits or in the bulk lane of a request scheduler), the window is taken back
+ * and all of its addresses are verified with the single-verify endpoint instead. Once a window has been
+ * uploaded, its addresses are charged, so the callers keep waiting for the batch result instead of paying
+ * for a second verification.
+ *
+ * <pre>{@code
+ * try (EmailCheckBatcher batcher = EmailCheckBatcher.builder(service, config).lingerTime(Duration.ofSeconds(2)).build()) {
+ *     CompletableFuture<EmailCheckResult> result = batcher.submit("john@example.com");
+ * }
+ * }</pre>
+ */
+public final class EmailCheckBatcher implements AutoCloseable {
+
+    private static final AtomicInteger BATCHER_COUNTER = new AtomicInteger();
+
+    private final BouncerCheckService service;
+    private final BouncerCheckConfig config;
+    private final Duration lingerTime;
+    private final int maxBatchSize;
+    private final int minBatchSize;
+    private final Duration latencyBudget;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Window window = new Window();
+    private ScheduledFuture<?> lingerTimer;
+    private volatile boolean closed;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private final LongAdder batchedChecks = new LongAdder();
+    private final LongAdder singleChecks = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private record Pending(String email, CompletableFuture<EmailCheckResult> future, Window window) {
+    }
+
+    /**
+     * Lifecycle of a window: it is OPEN while collecting and until its batch is uploaded, then UPLOADED.
+     * A window still OPEN when the latency budget of one of its addresses runs out is TAKEN_BACK and
+     * verified with single calls; it is never uploaded afterwards.
+     */
+    private enum WindowState {
+        OPEN, UPLOADED, TAKEN_BACK
+    }
+
+    private static final class Window {
+        private final List<Pending> pending = new ArrayList<>();
+        private final AtomicReference<WindowState> state = new AtomicReference<>(WindowState.OPEN);
+
+        /**
+         * @return true if the window may be uploaded; marks it as uploaded.
+         */
+        private boolean claimUpload() {
+            return state.compareAndSet(WindowState.OPEN, WindowState.UPLOADED) || state.get() == WindowState.UPLOADED;
+        }
+    }
+
+    private EmailCheckBatcher(Builder builder) {
+        this.service = builder.service;
+        this.config = builder.config;
+        this.lingerTime = builder.lingerTime;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.minBatchSize = builder.minBatchSize;
+        this.latencyBudget = builder.latencyBudget;
+
+        int batcherId = BATCHER_COUNTER.incrementAndGet();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bouncer-micro-batcher-" + batcherId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("bouncer-micro-batch-" + batcherId + "-", 0).factory());
+    }
+
+    /**
+     * Adds an address to the current window.
+     *
+     * @param email The email address to check.
+     * @return A future completing with the check result. It never completes exceptionally for API errors;
+     *         like {@link BouncerCheckService} it returns an error result instead.
+     * @throws IllegalStateException if the batcher was closed.
+     */
+    public CompletableFuture<EmailCheckResult> submit(String email) {
+        Objects.requireNonNull(email, "email cannot be null");
+        Pending pending;
+        Window full = null;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("EmailCheckBatcher was closed");
+            }
+            outstanding.incrementAndGet();
+            pending = new Pending(email, new CompletableFuture<>(), window);
+            window.pending.add(pending);
+            if (window.pending.size() >= maxBatchSize) {
+                full = takeWindow();
+            } else if (lingerTimer == null) {
+                lingerTimer = scheduler.schedule(this::flush, lingerTime.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        ScheduledFuture<?> fallback = scheduler.schedule(() -> fallBackToSingle(pending), latencyBudget.toNanos(), TimeUnit.NANOSECONDS);
+        pending.future.whenComplete((result, error) -> {
+            fallback.cancel(false);
+            if (outstanding.decrementAndGet() == 0 && closed) {
+                shutdownExecutors();
+            }
+        });
+        if (full != null) {
+            send(full);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Sends the current window immediately, without waiting for the linger time.
+     */
+    public void flush() {
+        Window taken;
+        lock.lock();
+        try {
+            taken = takeWindow();
+        } finally {
+            lock.unlock();
+        }
+        if (!taken.pending.isEmpty()) {
+            send(taken);
+        }
+    }
+
+    /**
+     * Must be called with the lock held.
+     */
+    private Window takeWindow() {
+        Window taken = window;
+        window = new Window();
+        if (lingerTimer != null) {
+            lingerTimer.cancel(false);
+            lingerTimer = null;
+        }
+        return taken;
+    }
+
+    private void send(Window taken) {
+        List<Pending> batch = taken.pending;
+        workers.execute(() -> {
+            List<String> emails = batch.stream().map(Pending::email).toList();
+            try {
+                if (emails.stream().distinct().count() < minBatchSize) {
+                    if (!taken.claimUpload()) {
+                        return; // Taken back for single verification
+                    }
+                    singleChecks.add(batch.size());
+                    // Results are in input order
+                    List<EmailCheckResult> results = service.checkEmailsConcurrently(emails, config, minBatchSize);
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).future.complete(results.get(i));
+                    }
+                    return;
+                }
+                List<EmailCheckResult> results = service.checkBatchEmails(emails, config, Integer.MAX_VALUE,
+                        CancellationToken.none(), taken::claimUpload);
+                if (taken.state.get() == WindowState.TAKEN_BACK) {
+                    return; // The single verifications complete the futures
+                }
+                batchedChecks.add(batch.size());
+                Map<String, EmailCheckResult> resultByEmail = new HashMap<>();
+                for (EmailCheckResult result : results) {
+                    resultByEmail.put(result.email(), result);
+                }
+                for (Pending pending : batch) {
+                    EmailCheckResult result = resultByEmail.get(pending.email);
+                    pending.future.complete(result != null ? result
+                            : new EmailCheckResult(pending.email, false, false, "Email not found in Bouncer batch results"));
+                }
+            } catch (RuntimeException e) {
+                if (taken.state.get() == WindowState.TAKEN_BACK) {
+                    return;
+                }
+                System.err.println("Unexpected error in micro-batch of " + batch.size() + " emails: " + e.getMessage());
+                for (Pending pending : batch) {
+                    pending.future.complete(new EmailCheckResult(pending.email, false, false, "Unexpected Error: " + e.getMessage()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Takes the window of an address whose latency budget ran out back for single verification, unless it
+     * was already uploaded; then its addresses are charged and the callers wait for the batch.
+     */
+    private void fallBackToSingle(Pending pending) {
+        if (pending.future.isDone()) {
+            return;
+        }
+        Window taken = pending.window;
+        if (!taken.state.compareAndSet(WindowState.OPEN, WindowState.TAKEN_BACK)) {
+            if (taken.state.get() == WindowState.UPLOADED) {
+                System.out.println("Latency budget exceeded for " + pending.email + ", waiting for its batch, which is already uploaded.");
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            if (window == taken) {
+                takeWindow(); // Still collecting; later addresses go into a new window
+            }
+        } finally {
+            lock.unlock();
+        }
+        System.out.println("Latency budget exceeded for " + pending.email + ", verifying its window of "
+                + taken.pending.size() + " emails with single verification.");
+        for (Pending waiting : taken.pending) {
+            fallbacks.increment();
+            workers.execute(() -> waiting.future.complete(service.checkSingleEmail(waiting.email, config)));
+        }
+    }
+
+    /**
+     * @return The number of checks sent as part of a batch job.
+     */
+    public long getBatchedCount() {
+        return batchedChecks.sum();
+    }
+
+    /**
+     * @return The number of checks sent as single verifications because their window was too small.
+     */
+    public long getSingleCount() {
+        return singleChecks.sum();
+    }
+
+    /**
+     * @return The number of checks answered by a single verification because their window was taken back
+     *         after the latency budget was exceeded.
+     */
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * Sends the current window and stops accepting new addresses.
+     * Checks already sent keep running and complete their futures.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        flush();
+        // Otherwise the threads stop once the last outstanding check completes; its latency fallback must stay possible
+        if (outstanding.get() == 0) {
+            shutdownExecutors();
+        }
+    }
+
+    private void shutdownExecutors() {
+        scheduler.shutdown();
+        workers.shutdown();
+    }
+
+    public static Builder builder(BouncerCheckService service, BouncerCheckConfig config) {
+        return new Builder(service, config);
+    }
+
+    public static final class Builder {
+        private final BouncerCheckService service;
+        private final BouncerCheckConfig config;
+        private Duration lingerTime = Duration.ofSeconds(2);
+        private int maxBatchSize = 1_000;
+        private int minBatchSize = 10;
+        private Duration latencyBudget = Duration.ofSeconds(60);
+
+        public Builder(BouncerCheckService service, BouncerCheckConfig config) {
+            this.service = Objects.requireNonNull(service, "service cannot be null");
+            this.config = Objects.requireNonNull(config, "config cannot be null");
+        }
+
+        /**
+         * How long a window collects addresses after its first one (default 2 seconds).
+         */
+        public Builder lingerTime(Duration lingerTime) {
+            Objects.requireNonNull(lingerTime, "lingerTime cannot be null");
+            if (lingerTime.isNegative()) {
+                throw new IllegalArgumentException("lingerTime must not be negative");
+            }
+            this.lingerTime = lingerTime;
+            return this;
+        }
+
+        /**
+         * Number of addresses at which a window is sent without waiting for the linger time (default 1,000).
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be positive");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Windows with fewer distinct addresses are verified with parallel single calls (default 10).
+         */
+        public Builder minBatchSize(int minBatchSize) {
+            if (minBatchSize <= 0) {
+                throw new IllegalArgumentException("minBatchSize must be positive");
+            }
+            this.minBatchSize = minBatchSize;
+            return this;
+        }
+
+        /**
+         * Time after which a caller still waiting for a batch result is served by a single verification
+         * (default 60 seconds).
+         */
+        public Builder latencyBudget(Duration latencyBudget) {
+            Objects.requireNonNull(latencyBudget, "latencyBudget cannot be null");
+            if (latencyBudget.isNegative() || latencyBudget.isZero()) {
+                throw new IllegalArgumentException("latencyBudget must be positive");
+            }
+            this.latencyBudget = latencyBudget;
+            return this;
+        }
+
+        public EmailCheckBatcher build() {
+            return new EmailCheckBatcher(this);
+        }
+    }
+}
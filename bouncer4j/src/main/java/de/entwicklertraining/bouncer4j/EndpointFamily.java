@@ -0,0 +1,15 @@
+package de.entwicklertraining.bouncer4j;
+
+/**
+ * Groups the Bouncer API endpoints that share quotas and client-side limits.
+ */
+public enum EndpointFamily {
+    /** GET /v1.1/email/verify */
+    VERIFY,
+    /** GET /v1.1/domain */
+    DOMAIN,
+    /** All /v1.1/email/verify/batch endpoints */
+    BATCH,
+    /** GET /v1.1/credits */
+    CREDITS
+}
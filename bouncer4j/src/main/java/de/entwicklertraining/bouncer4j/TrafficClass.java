@@ -0,0 +1,12 @@
+package de.entwicklertraining.bouncer4j;
+
+/**
+ * Priority class of a request, used by a {@link de.entwicklertraining.bouncer4j.resilience.RequestScheduler}
+ * to keep latency-critical checks from queueing behind bulk work.
+ */
+public enum TrafficClass {
+    /** Latency-critical requests, e.g. checks of a signup form. */
+    INTERACTIVE,
+    /** Throughput-oriented requests, e.g. batch jobs and list cleaning. */
+    BULK
+}
@@ -0,0 +1,138 @@
+package de.entwicklertraining.bouncer4j.address;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maps the different spellings of a mailbox to one canonical address, using per-provider
+ * {@link CanonicalizationRule}s. {@code John.Doe+news@googlemail.com} and {@code johndoe@gmail.com},
+ * for example, both become {@code johndoe@gmail.com}.
+ *
+ * <p>Input is expected in the form produced by {@link AddressNormalizer}. Quoted local parts and
+ * addresses whose local part would become empty are returned unchanged.
+ *
+ * <pre>{@code
+ * AddressCanonicalizer canonicalizer = AddressCanonicalizer.builder()
+ *         .rules(AddressCanonicalizer.defaults())
+ *         .rule(CanonicalizationRule.builder().caseInsensitive(true).subaddressSeparator('-').build(), "example.org")
+ *         .build();
+ * }</pre>
+ */
+public final class AddressCanonicalizer {
+
+    private final Map<String, CanonicalizationRule> rulesByDomain;
+    private final Map<String, String> domainAliases;
+    private final CanonicalizationRule defaultRule;
+
+    private AddressCanonicalizer(Builder builder) {
+        this.rulesByDomain = Map.copyOf(builder.rulesByDomain);
+        this.domainAliases = Map.copyOf(builder.domainAliases);
+        this.defaultRule = builder.defaultRule;
+    }
+
+    /**
+     * Rules for the large consumer providers:
+     * <ul>
+     *   <li>Gmail ({@code googlemail.com} is an alias of {@code gmail.com}): case-insensitive, dots ignored, {@code +} sub-addresses,</li>
+     *   <li>Outlook/Hotmail/Live/MSN, iCloud, Fastmail and Proton: case-insensitive, {@code +} sub-addresses,</li>
+     *   <li>all other domains: case-insensitive.</li>
+     * </ul>
+     */
+    public static AddressCanonicalizer defaults() {
+        CanonicalizationRule plusAddressing = CanonicalizationRule.builder()
+                .caseInsensitive(true)
+                .subaddressSeparator('+')
+                .build();
+        return builder()
+                .rule(CanonicalizationRule.builder()
+                        .caseInsensitive(true)
+                        .ignoreDots(true)
+                        .subaddressSeparator('+')
+                        .build(), "gmail.com")
+                .alias("googlemail.com", "gmail.com")
+                .rule(plusAddressing, "outlook.com", "hotmail.com", "live.com", "msn.com")
+                .rule(plusAddressing, "icloud.com", "me.com", "mac.com")
+                .rule(plusAddressing, "fastmail.com", "fastmail.fm")
+                .rule(plusAddressing, "protonmail.com", "proton.me", "pm.me")
+                .defaultRule(CanonicalizationRule.caseInsensitive())
+                .build();
+    }
+
+    /**
+     * @param address A normalised address.
+     * @return The canonical address of the mailbox.
+     */
+    public String canonicalize(String address) {
+        Objects.requireNonNull(address, "address cannot be null");
+        int at = address.lastIndexOf('@');
+        if (at <= 0 || at == address.length() - 1 || address.charAt(0) == '"') {
+            return address;
+        }
+        String domain = address.substring(at + 1);
+        String canonicalDomain = domainAliases.getOrDefault(domain, domain);
+        CanonicalizationRule rule = rulesByDomain.getOrDefault(canonicalDomain, defaultRule);
+        String localPart = address.substring(0, at);
+        String canonicalLocalPart = rule != null ? rule.apply(localPart) : localPart;
+        if (canonicalLocalPart.isEmpty()) {
+            return address;
+        }
+        if (canonicalLocalPart.equals(localPart) && canonicalDomain.equals(domain)) {
+            return address;
+        }
+        return canonicalLocalPart + "@" + canonicalDomain;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private final Map<String, CanonicalizationRule> rulesByDomain = new HashMap<>();
+        private final Map<String, String> domainAliases = new HashMap<>();
+        private CanonicalizationRule defaultRule;
+
+        /**
+         * Uses the rule for the given domains, replacing earlier rules for them.
+         */
+        public Builder rule(CanonicalizationRule rule, String... domains) {
+            Objects.requireNonNull(rule, "rule cannot be null");
+            for (String domain : domains) {
+                rulesByDomain.put(domain.toLowerCase(Locale.ROOT), rule);
+            }
+            return this;
+        }
+
+        /**
+         * Treats {@code domain} as another name of {@code canonicalDomain}; its addresses use the rule
+         * of the canonical domain and are rewritten to it.
+         */
+        public Builder alias(String domain, String canonicalDomain) {
+            domainAliases.put(domain.toLowerCase(Locale.ROOT), canonicalDomain.toLowerCase(Locale.ROOT));
+            return this;
+        }
+
+        /**
+         * Rule for all domains without a rule of their own, or null to leave them unchanged.
+         */
+        public Builder defaultRule(CanonicalizationRule defaultRule) {
+            this.defaultRule = defaultRule;
+            return this;
+        }
+
+        /**
+         * Copies all rules, aliases and the default rule of another canonicalizer, e.g. to extend {@link #defaults()}.
+         */
+        public Builder rules(AddressCanonicalizer other) {
+            rulesByDomain.putAll(other.rulesByDomain);
+            domainAliases.putAll(other.domainAliases);
+            defaultRule = other.defaultRule;
+            return this;
+        }
+
+        public AddressCanonicalizer build() {
+            return new AddressCanonicalizer(this);
+        }
+    }
+}
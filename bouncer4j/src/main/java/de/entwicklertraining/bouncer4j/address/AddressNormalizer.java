@@ -0,0 +1,206 @@
+package de.entwicklertraining.bouncer4j.address;
+
+import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Local syntax check and normalisation of email addresses, run before any API call.
+ *
+ * <p>Accepted are addresses of the form {@code local-part@domain} as used for mail delivery (RFC 5321/5322):
+ * <ul>
+ *   <li>the local part is a dot-atom or a quoted string of at most 64 octets; UTF-8 characters are allowed (RFC 6531),</li>
+ *   <li>the domain consists of at least two labels of letters, digits and hyphens, each at most 63 characters,
+ *       with a non-numeric top-level label; internationalised domains are converted to punycode,</li>
+ *   <li>the whole address has at most 254 octets.</li>
+ * </ul>
+ * Comments, folding whitespace, obsolete syntax and domain literals ({@code user@[192.0.2.1]}) are rejected.
+ *
+ * <p>Normalisation trims surrounding whitespace and lower-cases the domain; the local part is left as it is.
+ * Addresses that are already normal are returned as the same string instance.
+ */
+public final class AddressNormalizer {
+
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_DOMAIN_LENGTH = 253;
+    private static final int MAX_ADDRESS_LENGTH = 254;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    private AddressNormalizer() {
+    }
+
+    /**
+     * Checks and normalises an address.
+     *
+     * @param raw The address as given, e.g. from an import.
+     * @return The normalised address, or the reason why it was rejected.
+     */
+    public static NormalizedAddress normalize(String raw) {
+        Objects.requireNonNull(raw, "email cannot be null");
+        String email = raw.strip();
+        if (email.isEmpty()) {
+            return NormalizedAddress.rejected(raw, "empty address");
+        }
+        int at = email.lastIndexOf('@');
+        if (at < 0) {
+            return NormalizedAddress.rejected(raw, "missing @");
+        }
+        if (at == 0) {
+            return NormalizedAddress.rejected(raw, "empty local part");
+        }
+        if (at == email.length() - 1) {
+            return NormalizedAddress.rejected(raw, "empty domain");
+        }
+
+        String localPartError = checkLocalPart(email, at);
+        if (localPartError != null) {
+            return NormalizedAddress.rejected(raw, localPartError);
+        }
+
+        // Scan the domain once; only copy it if it has to change
+        boolean upperCase = false;
+        boolean nonAscii = false;
+        for (int i = at + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80) {
+                nonAscii = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upperCase = true;
+            }
+        }
+        String domain = null;
+        if (nonAscii) {
+            try {
+                domain = IDN.toASCII(email.substring(at + 1), IDN.USE_STD3_ASCII_RULES).toLowerCase(Locale.ROOT);
+            } catch (IllegalArgumentException e) {
+                return NormalizedAddress.rejected(raw, "invalid internationalized domain");
+            }
+        } else if (upperCase) {
+            domain = email.substring(at + 1).toLowerCase(Locale.ROOT);
+        }
+
+        String domainError = domain != null ? checkDomain(domain, 0, domain.length()) : checkDomain(email, at + 1, email.length());
+        if (domainError != null) {
+            return NormalizedAddress.rejected(raw, domainError);
+        }
+
+        String normalized = domain != null ? email.substring(0, at + 1) + domain : email;
+        if (octets(normalized) > MAX_ADDRESS_LENGTH) {
+            return NormalizedAddress.rejected(raw, "address longer than " + MAX_ADDRESS_LENGTH + " characters");
+        }
+        return NormalizedAddress.valid(raw, normalized);
+    }
+
+    /**
+     * @return An error message, or null if {@code email[0, at)} is a valid local part.
+     */
+    private static String checkLocalPart(String email, int at) {
+        boolean ascii = true;
+        if (email.charAt(0) == '"') {
+            if (at < 2 || email.charAt(at - 1) != '"') {
+                return "unterminated quoted local part";
+            }
+            for (int i = 1; i < at - 1; i++) {
+                char c = email.charAt(i);
+                if (c == '\\') {
+                    i++;
+                    if (i >= at - 1 || email.charAt(i) < 0x20 || email.charAt(i) == 0x7f) {
+                        return "invalid escape in quoted local part";
+                    }
+                } else if (c == '"') {
+                    return "unescaped quote in local part";
+                } else if (c < 0x20 || c == 0x7f) {
+                    return "control character in local part";
+                } else if (c >= 0x80) {
+                    ascii = false;
+                }
+            }
+        } else {
+            char previous = '.';
+            for (int i = 0; i < at; i++) {
+                char c = email.charAt(i);
+                if (c == '.') {
+                    if (previous == '.') {
+                        return i == 0 ? "local part starts with a dot" : "consecutive dots in local part";
+                    }
+                } else if (c >= 0x80) {
+                    ascii = false;
+                } else if (!isAtext(c)) {
+                    return "invalid character '" + c + "' in local part";
+                }
+                previous = c;
+            }
+            if (previous == '.') {
+                return "local part ends with a dot";
+            }
+        }
+        int length = ascii ? at : octets(email.substring(0, at));
+        if (length > MAX_LOCAL_PART_LENGTH) {
+            return "local part longer than " + MAX_LOCAL_PART_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    /**
+     * @return An error message, or null if {@code s[from, to)} is a valid lower-case ASCII domain.
+     */
+    private static String checkDomain(String s, int from, int to) {
+        if (s.charAt(from) == '[') {
+            return "domain literals are not supported";
+        }
+        if (to - from > MAX_DOMAIN_LENGTH) {
+            return "domain longer than " + MAX_DOMAIN_LENGTH + " characters";
+        }
+        int labels = 0;
+        int labelStart = from;
+        boolean numericLabel = true;
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? s.charAt(i) : '.';
+            if (c == '.') {
+                int labelLength = i - labelStart;
+                if (labelLength == 0) {
+                    return i == to ? "domain ends with a dot" : "empty label in domain";
+                }
+                if (labelLength > MAX_LABEL_LENGTH) {
+                    return "domain label longer than " + MAX_LABEL_LENGTH + " characters";
+                }
+                if (s.charAt(labelStart) == '-' || s.charAt(i - 1) == '-') {
+                    return "domain label starts or ends with a hyphen";
+                }
+                labels++;
+                if (i < to) {
+                    labelStart = i + 1;
+                    numericLabel = true;
+                }
+            } else if (c >= '0' && c <= '9') {
+                // Digits are allowed anywhere in a label
+            } else if ((c >= 'a' && c <= 'z') || c == '-') {
+                numericLabel = false;
+            } else {
+                return "invalid character '" + c + "' in domain";
+            }
+        }
+        if (labels < 2) {
+            return "domain without top-level domain";
+        }
+        if (numericLabel) {
+            return "numeric top-level domain";
+        }
+        return null;
+    }
+
+    private static boolean isAtext(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || "!#$%&'*+-/=?^_`{|}~".indexOf(c) >= 0;
+    }
+
+    private static int octets(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return s.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        return s.length();
+    }
+}
@@ -0,0 +1,111 @@
+package de.entwicklertraining.bouncer4j.address;
+
+import java.util.Locale;
+
+/**
+ * Describes which spellings of a local part a mail provider delivers to the same mailbox.
+ *
+ * <pre>{@code
+ * // Gmail: case-insensitive, dots are ignored, "+tag" is a sub-address
+ * CanonicalizationRule gmail = CanonicalizationRule.builder()
+ *         .caseInsensitive(true)
+ *         .ignoreDots(true)
+ *         .subaddressSeparator('+')
+ *         .build();
+ * }</pre>
+ */
+public final class CanonicalizationRule {
+
+    private static final char NO_SEPARATOR = 0;
+
+    private final boolean caseInsensitive;
+    private final boolean ignoreDots;
+    private final char subaddressSeparator;
+
+    private CanonicalizationRule(Builder builder) {
+        this.caseInsensitive = builder.caseInsensitive;
+        this.ignoreDots = builder.ignoreDots;
+        this.subaddressSeparator = builder.subaddressSeparator;
+    }
+
+    /**
+     * @return A rule that only folds the case of the local part.
+     */
+    public static CanonicalizationRule caseInsensitive() {
+        return builder().caseInsensitive(true).build();
+    }
+
+    /**
+     * @param localPart An unquoted local part.
+     * @return The canonical spelling of the local part; may be empty if nothing remains.
+     */
+    public String apply(String localPart) {
+        String result = localPart;
+        if (subaddressSeparator != NO_SEPARATOR) {
+            int separator = result.indexOf(subaddressSeparator);
+            if (separator >= 0) {
+                result = result.substring(0, separator);
+            }
+        }
+        if (ignoreDots && result.indexOf('.') >= 0) {
+            result = result.replace(".", "");
+        }
+        if (caseInsensitive) {
+            result = result.toLowerCase(Locale.ROOT);
+        }
+        return result;
+    }
+
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    public boolean isIgnoreDots() {
+        return ignoreDots;
+    }
+
+    /**
+     * @return The sub-address separator, or 0 if the provider does not support sub-addressing.
+     */
+    public char getSubaddressSeparator() {
+        return subaddressSeparator;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private boolean caseInsensitive;
+        private boolean ignoreDots;
+        private char subaddressSeparator = NO_SEPARATOR;
+
+        /**
+         * Upper- and lower-case spellings reach the same mailbox.
+         */
+        public Builder caseInsensitive(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+            return this;
+        }
+
+        /**
+         * Dots in the local part are ignored ({@code john.doe} = {@code johndoe}).
+         */
+        public Builder ignoreDots(boolean ignoreDots) {
+            this.ignoreDots = ignoreDots;
+            return this;
+        }
+
+        /**
+         * Everything from this character on is a sub-address ({@code john+news} = {@code john}).
+         */
+        public Builder subaddressSeparator(char subaddressSeparator) {
+            this.subaddressSeparator = subaddressSeparator;
+            return this;
+        }
+
+        public CanonicalizationRule build() {
+            return new CanonicalizationRule(this);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package de.entwicklertraining.bouncer4j.address;
+
+/**
+ * Outcome of the local syntax check of an address.
+ *
+ * @param original     The address as given.
+ * @param address      The normalised address (trimmed, domain lower-cased and in ASCII form),
+ *                     or null if the address was rejected.
+ * @param rejectReason Why the address was rejected, or null if it is valid.
+ */
+public record NormalizedAddress(String original, String address, String rejectReason) {
+
+    static NormalizedAddress valid(String original, String address) {
+        return new NormalizedAddress(original, address, null);
+    }
+
+    static NormalizedAddress rejected(String original, String rejectReason) {
+        return new NormalizedAddress(original, null, rejectReason);
+    }
+
+    public boolean isValid() {
+        return rejectReason == null;
+    }
+}
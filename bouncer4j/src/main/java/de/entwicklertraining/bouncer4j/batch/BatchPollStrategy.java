@@ -0,0 +1,226 @@
+package de.entwicklertraining.bouncer4j.batch;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides when the {@link BatchPoller} checks the status of a batch next.
+ *
+ * <p>As soon as a batch reports progress ({@code processed}, {@code quantity} and the {@code started}
+ * timestamp), the throughput observed so far is used to predict the completion time and the next status
+ * call is scheduled close to it. Without progress information (e.g. while the batch is queued) the delay
+ * grows exponentially from {@code initialInterval}. Every delay is clamped to
+ * {@code [minInterval, maxInterval]} and randomised by {@code jitter} so that many batches created at the
+ * same time do not poll in lockstep. {@code maxWait} is the deadline after which the poller gives up.
+ */
+public final class BatchPollStrategy {
+
+    public static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_MIN_INTERVAL = Duration.ofMillis(500);
+    public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofMinutes(2);
+
+    private final Duration initialInterval;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final double backoffMultiplier;
+    private final double jitter;
+    private final Duration maxWait;
+
+    private BatchPollStrategy(Builder builder) {
+        if (builder.minInterval.compareTo(builder.maxInterval) > 0) {
+            throw new IllegalArgumentException("minInterval must not be greater than maxInterval");
+        }
+        this.initialInterval = builder.initialInterval;
+        this.minInterval = builder.minInterval;
+        this.maxInterval = builder.maxInterval;
+        this.backoffMultiplier = builder.backoffMultiplier;
+        this.jitter = builder.jitter;
+        this.maxWait = builder.maxWait;
+    }
+
+    /**
+     * @return The adaptive strategy with default settings.
+     */
+    public static BatchPollStrategy adaptive() {
+        return builder().build();
+    }
+
+    /**
+     * Polls at a constant interval without jitter, like the classic sleep loop.
+     *
+     * @param interval Delay between two status calls.
+     * @param maxWait  Deadline for the batch to complete.
+     */
+    public static BatchPollStrategy fixed(Duration interval, Duration maxWait) {
+        return builder()
+                .initialInterval(interval)
+                .minInterval(interval)
+                .maxInterval(interval)
+                .backoffMultiplier(1.0)
+                .jitter(0.0)
+                .maxWait(maxWait)
+                .build();
+    }
+
+    public Duration getInitialInterval() {
+        return initialInterval;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    /**
+     * Computes the delay until the next status call.
+     *
+     * @param status        The status response just received (may have a null status).
+     * @param previousDelay The previous delay, or null if this was the first status call.
+     * @param now           The current time.
+     * @return The delay until the next status call, clamped and jittered.
+     */
+    public Duration nextDelay(CheckBatchStatusResponse status, Duration previousDelay, Instant now) {
+        Duration predicted = predictRemaining(status, now);
+        Duration delay;
+        if (predicted != null) {
+            delay = predicted;
+        } else if (previousDelay == null) {
+            delay = initialInterval;
+        } else {
+            delay = Duration.ofNanos((long) Math.min(previousDelay.toNanos() * backoffMultiplier, Long.MAX_VALUE));
+        }
+        delay = clamp(delay);
+        if (jitter > 0) {
+            double factor = 1.0 + jitter * (ThreadLocalRandom.current().nextDouble() * 2.0 - 1.0);
+            delay = clamp(Duration.ofNanos((long) (delay.toNanos() * factor)));
+        }
+        return delay;
+    }
+
+    /**
+     * Estimates the time until the batch completes from the throughput observed since it started.
+     *
+     * @return The predicted remaining time, or null if there is not enough progress information.
+     */
+    private Duration predictRemaining(CheckBatchStatusResponse status, Instant now) {
+        Integer processed = status.getProcessed();
+        int quantity = status.getQuantity();
+        Instant started = parseTimestamp(status.getStarted());
+        if (processed == null || processed <= 0 || quantity <= 0 || started == null) {
+            return null;
+        }
+        int remaining = quantity - processed;
+        if (remaining <= 0) {
+            return minInterval; // Everything processed, results are about to become available
+        }
+        long elapsedMillis = Duration.between(started, now).toMillis();
+        if (elapsedMillis <= 0) {
+            return null;
+        }
+        double millisPerEmail = (double) elapsedMillis / processed;
+        return Duration.ofMillis((long) Math.ceil(millisPerEmail * remaining));
+    }
+
+    private Duration clamp(Duration delay) {
+        if (delay.compareTo(minInterval) < 0) {
+            return minInterval;
+        }
+        if (delay.compareTo(maxInterval) > 0) {
+            return maxInterval;
+        }
+        return delay;
+    }
+
+    private static Instant parseTimestamp(String timestamp) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private Duration initialInterval = DEFAULT_INITIAL_INTERVAL;
+        private Duration minInterval = DEFAULT_MIN_INTERVAL;
+        private Duration maxInterval = DEFAULT_MAX_INTERVAL;
+        private double backoffMultiplier = 1.5;
+        private double jitter = 0.1;
+        private Duration maxWait = DEFAULT_MAX_WAIT;
+
+        /**
+         * Delay after the first status call if no progress is reported yet (default 2 seconds).
+         */
+        public Builder initialInterval(Duration initialInterval) {
+            this.initialInterval = requirePositive(initialInterval, "initialInterval");
+            return this;
+        }
+
+        /**
+         * Lower bound for every delay (default 500 ms).
+         */
+        public Builder minInterval(Duration minInterval) {
+            this.minInterval = requirePositive(minInterval, "minInterval");
+            return this;
+        }
+
+        /**
+         * Upper bound for every delay (default 30 seconds).
+         */
+        public Builder maxInterval(Duration maxInterval) {
+            this.maxInterval = requirePositive(maxInterval, "maxInterval");
+            return this;
+        }
+
+        /**
+         * Growth factor of the delay while no progress is reported (default 1.5).
+         */
+        public Builder backoffMultiplier(double backoffMultiplier) {
+            if (backoffMultiplier < 1.0) {
+                throw new IllegalArgumentException("backoffMultiplier must be at least 1.0");
+            }
+            this.backoffMultiplier = backoffMultiplier;
+            return this;
+        }
+
+        /**
+         * Relative random deviation applied to every delay, 0.0 - 1.0 (default 0.1, i.e. ±10%).
+         */
+        public Builder jitter(double jitter) {
+            if (jitter < 0.0 || jitter > 1.0) {
+                throw new IllegalArgumentException("jitter must be between 0.0 and 1.0");
+            }
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Deadline for a batch to complete, measured from its registration (default 2 minutes).
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = requirePositive(maxWait, "maxWait");
+            return this;
+        }
+
+        public BatchPollStrategy build() {
+            return new BatchPollStrategy(this);
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            Objects.requireNonNull(duration, name + " cannot be null");
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+    }
+}
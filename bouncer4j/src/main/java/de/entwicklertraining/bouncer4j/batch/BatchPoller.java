@@ -0,0 +1,285 @@
+package de.entwicklertraining.bouncer4j.batch;
+
+import de.entwicklertraining.bouncer4j.BouncerClient;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.exceptions.BatchTimeoutException;
+import de.entwicklertraining.bouncer4j.exceptions.BouncerException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks any number of in-flight batches and polls their status on a shared scheduler.
+ *
+ * <p>Instead of blocking one thread per batch in a sleep loop, every batch gets a
+ * {@link CompletableFuture} that completes once Bouncer reports the batch as completed.
+ * A small scheduler pool only times the polls; the blocking status calls and result downloads run on
+ * virtual threads, so a slow status call never delays the polls of other batches.
+ * When each batch is polled next is decided by the configured {@link BatchPollStrategy}.
+ *
+ * <pre>{@code
+ * BatchPoller poller = BatchPoller.builder(client).build();
+ * DownloadBatchResultsResponse results = poller.submit(batchId).join();
+ * }</pre>
+ */
+public final class BatchPoller implements AutoCloseable {
+
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_MAX_WAIT = BatchPollStrategy.DEFAULT_MAX_WAIT;
+
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final BouncerClient bouncerClient;
+    private final BatchPollStrategy strategy;
+    private final Duration maxWait;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService callExecutor;
+    private final Map<String, CompletableFuture<CheckBatchStatusResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private BatchPoller(Builder builder) {
+        this.bouncerClient = builder.bouncerClient;
+        this.strategy = builder.pollInterval != null
+                ? BatchPollStrategy.fixed(builder.pollInterval, builder.strategy.getMaxWait())
+                : builder.strategy;
+        this.maxWait = builder.maxWait != null ? builder.maxWait : strategy.getMaxWait();
+
+        int poolId = POOL_COUNTER.incrementAndGet();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(builder.threads, runnable -> {
+            Thread thread = new Thread(runnable, "bouncer-batch-poller-" + poolId + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.callExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("bouncer-batch-call-" + poolId + "-", 0).factory());
+    }
+
+    /**
+     * Registers a batch for polling. Submitting the same batch ID twice returns the same future.
+     *
+     * @param batchId The batch ID returned by {@link CreateBatchRequest}.
+     * @return A future completing with the final status once the batch is completed.
+     *         It completes exceptionally with a {@link BouncerException} if the batch failed,
+     *         with a {@link BatchTimeoutException} if it did not complete in time,
+     *         or with the API exception of a failed status call.
+     */
+    public CompletableFuture<CheckBatchStatusResponse> awaitCompletion(String batchId) {
+        return awaitCompletion(batchId, null);
+    }
+
+    /**
+     * Registers a batch for polling that ends at the given deadline if it is earlier than the
+     * {@link Builder#maxWait(Duration) maximum wait}. Polling stops as well once the
+     * returned future is cancelled. If the batch is already being polled, its existing future is returned.
+     *
+     * @param batchId  The batch ID returned by {@link CreateBatchRequest}.
+     * @param deadline The latest point in time to poll, or null to wait as long as the strategy allows.
+     * @return A future completing as described in {@link #awaitCompletion(String)}.
+     */
+    public CompletableFuture<CheckBatchStatusResponse> awaitCompletion(String batchId, Instant deadline) {
+        Objects.requireNonNull(batchId, "batchId cannot be null");
+        long maxWaitNanos = maxWait.toNanos();
+        if (deadline != null) {
+            maxWaitNanos = Math.min(maxWaitNanos, Math.max(0, Duration.between(Instant.now(), deadline).toNanos()));
+        }
+        long waitNanos = maxWaitNanos;
+        return inFlight.computeIfAbsent(batchId, id -> {
+            PollState state = new PollState(id, System.nanoTime() + waitNanos, Duration.ofNanos(waitNanos));
+            state.future.whenComplete((status, error) -> {
+                inFlight.remove(id, state.future);
+                state.token.cancel(); // Aborts a status call still in flight, e.g. after the future was cancelled
+            });
+            callExecutor.execute(() -> poll(state));
+            return state.future;
+        });
+    }
+
+    /**
+     * Registers a batch for polling and downloads all results ({@code download=all}) once it is completed.
+     *
+     * @param batchId The batch ID returned by {@link CreateBatchRequest}.
+     * @return A future completing with the downloaded results.
+     */
+    public CompletableFuture<DownloadBatchResultsResponse> submit(String batchId) {
+        CompletableFuture<CheckBatchStatusResponse> completion = awaitCompletion(batchId);
+        CompletableFuture<DownloadBatchResultsResponse> result = completion.thenApplyAsync(status -> {
+            try {
+                return bouncerClient.batch().download(batchId)
+                        .filter("all")
+                        .execute();
+            } catch (BouncerException | org.json.JSONException e) {
+                System.err.println("Error downloading batch results for batch " + batchId + ": " + e.getMessage());
+                throw new BouncerException("Failed to download batch results: " + e.getMessage(), e);
+            }
+        }, callExecutor);
+        // Cancelling the download also stops polling
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                completion.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return The number of batches currently being polled.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Stops polling. Futures of batches still in flight are completed exceptionally.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        callExecutor.shutdownNow();
+        for (CompletableFuture<CheckBatchStatusResponse> future : inFlight.values()) {
+            future.completeExceptionally(new BouncerException("BatchPoller was closed"));
+        }
+        inFlight.clear();
+    }
+
+    private void poll(PollState state) {
+        String batchId = state.batchId;
+        CompletableFuture<CheckBatchStatusResponse> future = state.future;
+        if (future.isDone()) {
+            return; // Cancelled or closed in the meantime
+        }
+        try {
+            CheckBatchStatusResponse statusResponse = bouncerClient.batch().status(batchId).execute(state.token);
+            String status = statusResponse.getStatus();
+            // Defensive programming: check for null status
+            if (status == null) {
+                System.err.println("Warning: Received null status for Batch " + batchId + ". Assuming not completed.");
+            } else {
+                Integer processed = statusResponse.getProcessed(); // Can be null
+                System.out.println("Polling Batch " + batchId
+                        + ", Status: " + status
+                        + ", Processed: " + (processed != null ? processed : "?")
+                        + "/" + statusResponse.getQuantity());
+
+                if ("completed".equalsIgnoreCase(status)) {
+                    future.complete(statusResponse);
+                    return;
+                }
+                if ("failed".equalsIgnoreCase(status)) {
+                    System.err.println("Batch " + batchId + " failed.");
+                    future.completeExceptionally(new BouncerException("Batch " + batchId + " failed."));
+                    return;
+                }
+            }
+            // Other status (queued, processing) -> continue polling
+            long remainingNanos = state.deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                future.completeExceptionally(new BatchTimeoutException(batchId,
+                        "Batch " + batchId + " did not complete within " + state.maxWait.toSeconds() + " seconds."));
+                return;
+            }
+            // Never sleep past the deadline; the last status call happens right at it
+            state.lastDelay = strategy.nextDelay(statusResponse, state.lastDelay, Instant.now());
+            long delayNanos = Math.min(state.lastDelay.toNanos(), remainingNanos);
+            scheduler.schedule(() -> callExecutor.execute(() -> poll(state)), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Polling state of a single batch. Only accessed by the thread currently polling it; polls of the same
+     * batch never overlap, as the next one is scheduled at the end of the previous one.
+     */
+    private static final class PollState {
+        private final String batchId;
+        private final long deadlineNanos;
+        private final Duration maxWait;
+        private final CompletableFuture<CheckBatchStatusResponse> future = new CompletableFuture<>();
+        /** Cancelled once the future is done, so no status call outlives the wait for the batch. */
+        private final CancellationToken token = CancellationToken.create();
+        private Duration lastDelay;
+
+        private PollState(String batchId, long deadlineNanos, Duration maxWait) {
+            this.batchId = batchId;
+            this.deadlineNanos = deadlineNanos;
+            this.maxWait = maxWait;
+        }
+    }
+
+    public static Builder builder(BouncerClient bouncerClient) {
+        return new Builder(bouncerClient);
+    }
+
+    public static final class Builder {
+        private final BouncerClient bouncerClient;
+        private int threads = 1;
+        private BatchPollStrategy strategy = BatchPollStrategy.adaptive();
+        private Duration pollInterval;
+        private Duration maxWait;
+
+        public Builder(BouncerClient bouncerClient) {
+            this.bouncerClient = Objects.requireNonNull(bouncerClient, "bouncerClient cannot be null");
+        }
+
+        /**
+         * Number of scheduler threads timing the status calls (default 1). The calls themselves run on
+         * virtual threads, so one thread is enough for any number of batches.
+         */
+        public Builder threads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("threads must be positive");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Strategy deciding the delay between status calls and the deadline per batch
+         * (default {@link BatchPollStrategy#adaptive()}).
+         */
+        public Builder strategy(BatchPollStrategy strategy) {
+            this.strategy = Objects.requireNonNull(strategy, "strategy cannot be null");
+            this.pollInterval = null;
+            return this;
+        }
+
+        /**
+         * Polls at a constant interval instead of adaptively; shorthand for
+         * {@link BatchPollStrategy#fixed(Duration, Duration)} (e.g. {@link #DEFAULT_POLL_INTERVAL}).
+         */
+        public Builder pollInterval(Duration pollInterval) {
+            Objects.requireNonNull(pollInterval, "pollInterval cannot be null");
+            if (pollInterval.isNegative() || pollInterval.isZero()) {
+                throw new IllegalArgumentException("pollInterval must be positive");
+            }
+            this.pollInterval = pollInterval;
+            return this;
+        }
+
+        /**
+         * Maximum time to wait for a batch to complete; overrides the maximum wait of the strategy
+         * (default {@link #DEFAULT_MAX_WAIT}).
+         */
+        public Builder maxWait(Duration maxWait) {
+            Objects.requireNonNull(maxWait, "maxWait cannot be null");
+            if (maxWait.isNegative() || maxWait.isZero()) {
+                throw new IllegalArgumentException("maxWait must be positive");
+            }
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public BatchPoller build() {
+            return new BatchPoller(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package de.entwicklertraining.bouncer4j.batch;
+
+import de.entwicklertraining.api.base.ApiClient;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Liest das Ergebnis-Array von
+ * GET /v1.1/email/verify/batch/{batchId}/download
+ * Element für Element, ohne das gesamte Array im Speicher aufzubauen.
+ * <p>
+ * Zu jedem Zeitpunkt existiert nur das JSON-Objekt des aktuellen Eintrags,
+ * der Speicherbedarf ist daher unabhängig von der Batch-Größe.
+ * Fehlerhafte Einträge werden (wie in {@link DownloadBatchResultsResponse}) geloggt und übersprungen.
+ */
+public final class BatchResultsReader implements Iterator<BatchResultItem>, Closeable {
+
+    private final Reader reader;
+    private final JSONTokener tokener;
+    private BatchResultItem next;
+    private boolean finished;
+    private boolean firstElement = true;
+    private int index;
+
+    public BatchResultsReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public BatchResultsReader(Reader reader) {
+        this.reader = reader;
+        this.tokener = new JSONTokener(reader);
+        try {
+            char start = tokener.nextClean();
+            if (start == '{') {
+                // Es könnte ein Fehlerobjekt von Bouncer sein (z.B. 404 oder anderer Fehler statt Array)
+                tokener.back();
+                JSONObject obj = new JSONObject(tokener);
+                if (obj.has("status") || obj.has("error") || obj.has("message")) {
+                    System.err.println("Received error JSON object instead of results array: " + obj);
+                    this.finished = true;
+                } else {
+                    throw new ApiClient.ApiResponseUnusableException("Expected JSON array, got unexpected JSON object: " + obj);
+                }
+            } else if (start != '[') {
+                throw new ApiClient.ApiResponseUnusableException("Unknown JSON structure in batch results. Expected Array or Object, got: '" + start + "'");
+            }
+        } catch (JSONException e) {
+            throw new ApiClient.ApiResponseUnusableException("Invalid JSON in batch results: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public BatchResultItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BatchResultItem item = next;
+        next = null;
+        return item;
+    }
+
+    /**
+     * Liest bis zum nächsten gültigen Eintrag oder bis zum Ende des Arrays.
+     */
+    private void advance() {
+        try {
+            while (!finished) {
+                char c = tokener.nextClean();
+                if (firstElement) {
+                    firstElement = false;
+                    if (c == ']') {
+                        finished = true;
+                        return;
+                    }
+                    tokener.back();
+                } else if (c == ']') {
+                    finished = true;
+                    return;
+                } else if (c != ',') {
+                    throw new ApiClient.ApiResponseUnusableException("Expected ',' or ']' in batch results at index " + index + ", got: '" + c + "'");
+                }
+
+                int i = index++;
+                Object value = tokener.nextValue();
+                if (value instanceof JSONObject itemJson) {
+                    try {
+                        next = BatchResultItem.fromJson(itemJson);
+                        return;
+                    } catch (ApiClient.ApiResponseUnusableException e) {
+                        // Logge Fehler beim Parsen eines einzelnen Items, aber fahre fort
+                        System.err.println("Error parsing batch result item at index " + i + ": " + e.getMessage() + " - JSON: " + itemJson);
+                    }
+                } else {
+                    System.err.println("Warning: Found null or non-object element in batch results array at index " + i);
+                }
+            }
+        } catch (JSONException e) {
+            finished = true;
+            throw new ApiClient.ApiResponseUnusableException("Invalid JSON in batch results at index " + index + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        next = null;
+        reader.close();
+    }
+}
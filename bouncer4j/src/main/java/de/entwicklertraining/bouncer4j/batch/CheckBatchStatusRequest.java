@@ -3,10 +3,13 @@ package de.entwicklertraining.bouncer4j.batch;
 import de.entwicklertraining.api.base.ApiRequestBuilderBase;
 import de.entwicklertraining.bouncer4j.BouncerClient;
 import de.entwicklertraining.bouncer4j.BouncerRequest;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.EndpointFamily;
 import org.json.JSONObject;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a request to check the status of a batch verification job.
@@ -33,6 +36,16 @@ public final class CheckBatchStatusRequest extends BouncerRequest<CheckBatchStat
         return sb.toString();
     }
 
+    @Override
+    public EndpointFamily getEndpointFamily() {
+        return EndpointFamily.BATCH;
+    }
+
+    @Override
+    public boolean isCircuitBreakerGuarded() {
+        return false;
+    }
+
     @Override
     public String getHttpMethod() {
         return "GET";
@@ -82,9 +95,32 @@ public final class CheckBatchStatusRequest extends BouncerRequest<CheckBatchStat
             return this.bouncerClient.sendRequest(build());
         }
 
+        /**
+         * Sends the request like {@link #execute()}, giving up once the token is cancelled.
+         *
+         * @param token cancels the request, e.g. when the batch is no longer awaited
+         */
+        public CheckBatchStatusResponse execute(CancellationToken token) {
+            return this.bouncerClient.sendRequest(build(), token);
+        }
+
         @Override
         public CheckBatchStatusResponse executeWithExponentialBackoff() {
             return this.bouncerClient.sendRequestWithExponentialBackoff(build());
         }
+
+        /**
+         * Sends the request asynchronously on the client's {@link BouncerClient#getAsyncExecutor() async executor}.
+         */
+        public CompletableFuture<CheckBatchStatusResponse> executeAsync() {
+            return this.bouncerClient.sendRequestAsync(build());
+        }
+
+        /**
+         * Sends the request asynchronously, retrying with exponential backoff.
+         */
+        public CompletableFuture<CheckBatchStatusResponse> executeWithExponentialBackoffAsync() {
+            return this.bouncerClient.sendRequestWithExponentialBackoffAsync(build());
+        }
     }
 }
@@ -3,10 +3,23 @@ package de.entwicklertraining.bouncer4j.batch;
 import de.entwicklertraining.api.base.ApiRequestBuilderBase;
 import de.entwicklertraining.bouncer4j.BouncerClient;
 import de.entwicklertraining.bouncer4j.BouncerRequest;
-import org.json.JSONArray;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.EndpointFamily;
 import org.json.JSONObject;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
  * Represents a request to create a batch verification job.
@@ -14,11 +27,14 @@ import java.util.List;
  */
 public final class CreateBatchRequest extends BouncerRequest<CreateBatchResponse> {
 
-    private final List<String> emails;
+    private final Iterable<String> emails;
+    private final boolean singleUse;
+    private final AtomicBoolean consumed = new AtomicBoolean();
 
     CreateBatchRequest(Builder builder) {
         super(builder);
         this.emails = builder.emails;
+        this.singleUse = builder.singleUse;
     }
 
     @Override
@@ -26,6 +42,20 @@ public final class CreateBatchRequest extends BouncerRequest<CreateBatchResponse
         return "/v1.1/email/verify/batch";
     }
 
+    @Override
+    public EndpointFamily getEndpointFamily() {
+        return EndpointFamily.BATCH;
+    }
+
+    /**
+     * One credit per address. Addresses given as a stream or plain iterable are not counted,
+     * as that would consume them; such requests report an unknown cost of -1.
+     */
+    @Override
+    public int getCreditCost() {
+        return emails instanceof Collection<?> collection ? collection.size() : -1;
+    }
+
     @Override
     public String getHttpMethod() {
         return "POST";
@@ -33,13 +63,39 @@ public final class CreateBatchRequest extends BouncerRequest<CreateBatchResponse
 
     @Override
     public String getBody() {
-        JSONArray array = new JSONArray();
+        StringWriter writer = new StringWriter();
+        try {
+            writeBody(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringWriter does not throw
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the request body {@code [{"email":"..."},...]} to the writer, one address at a time,
+     * without building an intermediate JSON object graph.
+     *
+     * @param writer the target of the JSON body
+     * @throws IOException if writing fails
+     * @throws IllegalStateException if the addresses were given as a stream whose body was already written
+     */
+    public void writeBody(Writer writer) throws IOException {
+        if (singleUse && !consumed.compareAndSet(false, true)) {
+            throw new IllegalStateException("The body of a batch created from a stream can only be written once");
+        }
+        writer.write('[');
+        boolean first = true;
         for (String email : emails) {
-            JSONObject obj = new JSONObject();
-            obj.put("email", email);
-            array.put(obj);
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writer.write("{\"email\":");
+            JSONObject.quote(email, writer);
+            writer.write('}');
         }
-        return array.toString();
+        writer.write(']');
     }
 
     @Override
@@ -53,7 +109,8 @@ public final class CreateBatchRequest extends BouncerRequest<CreateBatchResponse
 
     public static final class Builder extends ApiRequestBuilderBase<Builder, CreateBatchRequest> {
         private final BouncerClient bouncerClient;
-        private List<String> emails;
+        private Iterable<String> emails;
+        private boolean singleUse;
 
         public Builder(BouncerClient bouncerClient) {
             this.bouncerClient = bouncerClient;
@@ -61,11 +118,38 @@ public final class CreateBatchRequest extends BouncerRequest<CreateBatchResponse
 
         public Builder emails(List<String> emails) {
             this.emails = emails;
+            this.singleUse = false;
             return this;
         }
 
         public Builder emails(String... emails) {
             this.emails = List.of(emails);
+            this.singleUse = false;
+            return this;
+        }
+
+        /**
+         * Sets the addresses from any iterable source. Combined with {@link #executeStreaming()}
+         * the addresses are read while the request body is being sent. Unless the source is a
+         * {@link java.util.Collection}, its cost is not known up front, so the request is rejected while a
+         * credit governor is set.
+         */
+        public Builder emails(Iterable<String> emails) {
+            this.emails = emails;
+            this.singleUse = false;
+            return this;
+        }
+
+        /**
+         * Sets the addresses from a stream. A stream can only be consumed once, so the request can only be
+         * sent with {@link #executeStreaming()} (or {@link #executeStreamingAsync()}), which writes the body
+         * exactly once and never retries; all other {@code execute} variants throw an
+         * {@link IllegalStateException}. Use {@link #emails(List)} for uploads that should be retried.
+         */
+        public Builder emails(Stream<String> emails) {
+            Objects.requireNonNull(emails, "emails cannot be null");
+            this.emails = emails::iterator;
+            this.singleUse = true;
             return this;
         }
 
@@ -76,12 +160,83 @@ public final class CreateBatchRequest extends BouncerRequest<CreateBatchResponse
 
         @Override
         public CreateBatchResponse execute() {
-            return this.bouncerClient.sendRequest(build());
+            return this.bouncerClient.sendRequest(buildReusable());
+        }
+
+        /**
+         * Sends the request like {@link #execute()}, giving up once the token is cancelled.
+         *
+         * @param token cancels the request, e.g. at a deadline
+         */
+        public CreateBatchResponse execute(CancellationToken token) {
+            return this.bouncerClient.sendRequest(buildReusable(), token);
         }
 
         @Override
         public CreateBatchResponse executeWithExponentialBackoff() {
-            return this.bouncerClient.sendRequestWithExponentialBackoff(build());
+            return this.bouncerClient.sendRequestWithExponentialBackoff(buildReusable());
+        }
+
+        /**
+         * Sends the request asynchronously on the client's {@link BouncerClient#getAsyncExecutor() async executor}.
+         */
+        public CompletableFuture<CreateBatchResponse> executeAsync() {
+            return this.bouncerClient.sendRequestAsync(buildReusable());
+        }
+
+        /**
+         * Sends the request asynchronously, retrying with exponential backoff.
+         */
+        public CompletableFuture<CreateBatchResponse> executeWithExponentialBackoffAsync() {
+            return this.bouncerClient.sendRequestWithExponentialBackoffAsync(buildReusable());
+        }
+
+        /**
+         * Sends the request with the body written straight to the connection's output stream.
+         * No JSON object, array or body string is built, so the transient heap needed for an upload
+         * does not grow with the number of addresses.
+         * Note that streaming requests are not retried automatically.
+         *
+         * @return the parsed response
+         */
+        public CreateBatchResponse executeStreaming() {
+            return executeStreaming(CancellationToken.none());
+        }
+
+        /**
+         * Streaming upload like {@link #executeStreaming()} that is aborted once the token is cancelled.
+         *
+         * @param token cancels the upload, e.g. at a deadline
+         * @return the parsed response
+         */
+        public CreateBatchResponse executeStreaming(CancellationToken token) {
+            CreateBatchRequest request = build();
+            return this.bouncerClient.sendStreamingRequest(request,
+                    out -> {
+                        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                        request.writeBody(writer);
+                        writer.flush();
+                    },
+                    body -> request.createResponse(new String(body.readAllBytes(), StandardCharsets.UTF_8)),
+                    token);
+        }
+
+        /**
+         * Asynchronous variant of {@link #executeStreaming()}.
+         */
+        public CompletableFuture<CreateBatchResponse> executeStreamingAsync() {
+            return CompletableFuture.supplyAsync(this::executeStreaming, this.bouncerClient.getAsyncExecutor());
+        }
+
+        /**
+         * Builds a request whose body may be read more than once, as the regular send paths may do
+         * (e.g. for a retry).
+         */
+        private CreateBatchRequest buildReusable() {
+            if (singleUse) {
+                throw new IllegalStateException("A batch created from a stream can only be sent with executeStreaming()");
+            }
+            return build();
         }
     }
 }
@@ -3,10 +3,15 @@ package de.entwicklertraining.bouncer4j.batch;
 import de.entwicklertraining.api.base.ApiRequestBuilderBase;
 import de.entwicklertraining.bouncer4j.BouncerClient;
 import de.entwicklertraining.bouncer4j.BouncerRequest;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.EndpointFamily;
 import org.json.JSONObject;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Represents a request to download batch verification results.
@@ -35,6 +40,16 @@ public final class DownloadBatchResultsRequest extends BouncerRequest<DownloadBa
         return sb.toString();
     }
 
+    @Override
+    public EndpointFamily getEndpointFamily() {
+        return EndpointFamily.BATCH;
+    }
+
+    @Override
+    public boolean isCircuitBreakerGuarded() {
+        return false;
+    }
+
     @Override
     public String getHttpMethod() {
         return "GET";
@@ -88,5 +103,58 @@ public final class DownloadBatchResultsRequest extends BouncerRequest<DownloadBa
         public DownloadBatchResultsResponse executeWithExponentialBackoff() {
             return this.bouncerClient.sendRequestWithExponentialBackoff(build());
         }
+
+        /**
+         * Sends the request asynchronously on the client's {@link BouncerClient#getAsyncExecutor() async executor}.
+         */
+        public CompletableFuture<DownloadBatchResultsResponse> executeAsync() {
+            return this.bouncerClient.sendRequestAsync(build());
+        }
+
+        /**
+         * Sends the request asynchronously, retrying with exponential backoff.
+         */
+        public CompletableFuture<DownloadBatchResultsResponse> executeWithExponentialBackoffAsync() {
+            return this.bouncerClient.sendRequestWithExponentialBackoffAsync(build());
+        }
+
+        /**
+         * Downloads the results and hands each item to the consumer while the response is still being read.
+         * The full result array is never held in memory, so peak memory stays flat regardless of batch size.
+         *
+         * @param consumer receives every successfully parsed result item in response order
+         * @return the number of items passed to the consumer
+         */
+        public long stream(Consumer<BatchResultItem> consumer) {
+            return stream(consumer, CancellationToken.none());
+        }
+
+        /**
+         * Streams the results like {@link #stream(Consumer)}; the download is aborted once the token is cancelled.
+         *
+         * @param consumer receives every successfully parsed result item in response order
+         * @param token    cancels the download, e.g. at a deadline
+         * @return the number of items passed to the consumer
+         */
+        public long stream(Consumer<BatchResultItem> consumer, CancellationToken token) {
+            Objects.requireNonNull(consumer, "consumer cannot be null");
+            return this.bouncerClient.sendStreamingRequest(build(), null, body -> {
+                long count = 0;
+                try (BatchResultsReader reader = new BatchResultsReader(body)) {
+                    while (reader.hasNext()) {
+                        consumer.accept(reader.next());
+                        count++;
+                    }
+                }
+                return count;
+            }, token);
+        }
+
+        /**
+         * Asynchronous variant of {@link #stream(Consumer)}. The consumer is called on the async executor's thread.
+         */
+        public CompletableFuture<Long> streamAsync(Consumer<BatchResultItem> consumer) {
+            return CompletableFuture.supplyAsync(() -> stream(consumer), this.bouncerClient.getAsyncExecutor());
+        }
     }
 }
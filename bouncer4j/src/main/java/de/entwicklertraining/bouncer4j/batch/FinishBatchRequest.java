@@ -3,10 +3,12 @@ package de.entwicklertraining.bouncer4j.batch;
 import de.entwicklertraining.api.base.ApiRequestBuilderBase;
 import de.entwicklertraining.bouncer4j.BouncerClient;
 import de.entwicklertraining.bouncer4j.BouncerRequest;
+import de.entwicklertraining.bouncer4j.EndpointFamily;
 import org.json.JSONObject;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a request to finish a batch verification job.
@@ -29,6 +31,16 @@ public final class FinishBatchRequest extends BouncerRequest<FinishBatchResponse
         return sb.toString();
     }
 
+    @Override
+    public EndpointFamily getEndpointFamily() {
+        return EndpointFamily.BATCH;
+    }
+
+    @Override
+    public boolean isCircuitBreakerGuarded() {
+        return false;
+    }
+
     @Override
     public String getHttpMethod() {
         return "POST";
@@ -76,5 +88,19 @@ public final class FinishBatchRequest extends BouncerRequest<FinishBatchResponse
         public FinishBatchResponse executeWithExponentialBackoff() {
             return this.bouncerClient.sendRequestWithExponentialBackoff(build());
         }
+
+        /**
+         * Sends the request asynchronously on the client's {@link BouncerClient#getAsyncExecutor() async executor}.
+         */
+        public CompletableFuture<FinishBatchResponse> executeAsync() {
+            return this.bouncerClient.sendRequestAsync(build());
+        }
+
+        /**
+         * Sends the request asynchronously, retrying with exponential backoff.
+         */
+        public CompletableFuture<FinishBatchResponse> executeWithExponentialBackoffAsync() {
+            return this.bouncerClient.sendRequestWithExponentialBackoffAsync(build());
+        }
     }
 }
@@ -0,0 +1,163 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory cache of {@link DomainInfo}, keyed by the lower-cased domain name.
+ * Entries expire after a fixed TTL; when the cache is full, the least recently used entry is evicted.
+ *
+ * <pre>{@code
+ * service.setDomainCache(DomainCache.builder().ttl(Duration.ofHours(12)).build());
+ * }</pre>
+ */
+public final class DomainCache {
+
+    private final int maximumSize;
+    private final Duration ttl;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(DomainInfo info, long expiresAtNanos) {
+    }
+
+    private DomainCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.ttl = builder.ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > DomainCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param domain The domain name.
+     * @return The cached information, or empty if there is none or it has expired.
+     */
+    public Optional<DomainInfo> get(String domain) {
+        Objects.requireNonNull(domain, "domain cannot be null");
+        String key = domain.trim().toLowerCase(Locale.ROOT);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos - System.nanoTime() > 0) {
+                hits.increment();
+                return Optional.of(entry.info);
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the information. Values the new information leaves unknown are kept from a valid older entry.
+     */
+    public void put(DomainInfo info) {
+        Objects.requireNonNull(info, "info cannot be null");
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Entry older = entries.get(info.name());
+            DomainInfo merged = older != null && older.expiresAtNanos - now > 0 ? info.mergedWith(older.info) : info;
+            entries.put(info.name(), new Entry(merged, now + ttl.toNanos()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(String domain) {
+        Objects.requireNonNull(domain, "domain cannot be null");
+        lock.lock();
+        try {
+            entries.remove(domain.trim().toLowerCase(Locale.ROOT));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of cached domains, including expired ones not yet removed.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return A snapshot of the hit, miss and eviction counters since creation.
+     */
+    public VerificationResultCache.Stats getStats() {
+        return new VerificationResultCache.Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int maximumSize = 10_000;
+        private Duration ttl = Duration.ofDays(1);
+
+        /**
+         * Maximum number of cached domains (default 10,000).
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * How long domain information stays valid (default 1 day, at most 100 years).
+         */
+        public Builder ttl(Duration ttl) {
+            Objects.requireNonNull(ttl, "ttl cannot be null");
+            if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(Duration.ofDays(36_500)) > 0) {
+                throw new IllegalArgumentException("ttl must be positive and at most 100 years");
+            }
+            this.ttl = ttl;
+            return this;
+        }
+
+        public DomainCache build() {
+            return new DomainCache(this);
+        }
+    }
+}
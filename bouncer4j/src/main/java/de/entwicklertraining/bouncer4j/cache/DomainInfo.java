@@ -0,0 +1,111 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import de.entwicklertraining.bouncer4j.verify.domain.VerifyDomainResponse;
+import de.entwicklertraining.bouncer4j.verify.email.Dns;
+import de.entwicklertraining.bouncer4j.verify.email.DnsType;
+import de.entwicklertraining.bouncer4j.verify.email.Domain;
+import de.entwicklertraining.bouncer4j.verify.email.EmailStatus;
+import de.entwicklertraining.bouncer4j.verify.email.VerificationReason;
+import de.entwicklertraining.bouncer4j.verify.email.YesNoUnknown;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * What is known about a domain, independent of the individual address.
+ *
+ * @param name        The domain name, lower-cased.
+ * @param acceptAll   Whether the domain accepts all addresses.
+ * @param disposable  Whether the domain is a disposable email provider.
+ * @param free        Whether the domain is a free email provider.
+ * @param acceptsMail Whether the domain can receive mail at all: YES if it has an MX record or an address on it
+ *                    was deliverable; NO only if Bouncer explicitly reported that the domain has no DNS record,
+ *                    or reported an invalid domain; UNKNOWN otherwise, e.g. for a domain with only an A record,
+ *                    a DNS type this client does not recognise, or a response without DNS information.
+ */
+public record DomainInfo(
+        String name,
+        YesNoUnknown acceptAll,
+        YesNoUnknown disposable,
+        YesNoUnknown free,
+        YesNoUnknown acceptsMail) {
+
+    public DomainInfo {
+        Objects.requireNonNull(name, "name cannot be null");
+        name = name.toLowerCase(Locale.ROOT);
+        acceptAll = acceptAll != null ? acceptAll : YesNoUnknown.UNKNOWN;
+        disposable = disposable != null ? disposable : YesNoUnknown.UNKNOWN;
+        free = free != null ? free : YesNoUnknown.UNKNOWN;
+        acceptsMail = acceptsMail != null ? acceptsMail : YesNoUnknown.UNKNOWN;
+    }
+
+    public static DomainInfo of(VerifyDomainResponse response) {
+        Domain domain = response.getDomainObject();
+        Dns dns = response.getDns().orElse(null);
+        YesNoUnknown acceptsMail;
+        if (dns == null) {
+            acceptsMail = YesNoUnknown.UNKNOWN; // The dns block is optional; its absence proves nothing
+        } else if (dns.getType() == DnsType.MX) {
+            acceptsMail = YesNoUnknown.YES;
+        } else if (dns.isMissingRecord()) {
+            acceptsMail = YesNoUnknown.NO; // Bouncer reports that the domain has no DNS record at all
+        } else {
+            // An A record alone, or a type this client does not know (e.g. CNAME): mail may or may not arrive
+            acceptsMail = YesNoUnknown.UNKNOWN;
+        }
+        return new DomainInfo(domain.getName(), domain.getAcceptAll(), domain.getDisposable(), domain.getFree(), acceptsMail);
+    }
+
+    /**
+     * Derives the domain information contained in the verification result of a single address.
+     *
+     * @param email  The verified address.
+     * @param status The verification status.
+     * @param reason The reason for the status.
+     * @param domain The domain block of the result, or null if it had none.
+     * @return The domain information, or empty if the result says nothing about the domain.
+     */
+    public static Optional<DomainInfo> of(String email, EmailStatus status, VerificationReason reason, Domain domain) {
+        boolean invalidDomain = status == EmailStatus.UNDELIVERABLE && reason == VerificationReason.INVALID_DOMAIN;
+        String name = domain != null && domain.getName() != null ? domain.getName() : domainOf(email);
+        if (name == null || (domain == null && !invalidDomain)) {
+            return Optional.empty();
+        }
+        return Optional.of(new DomainInfo(
+                name,
+                domain != null ? domain.getAcceptAll() : null,
+                domain != null ? domain.getDisposable() : null,
+                domain != null ? domain.getFree() : null,
+                invalidDomain ? YesNoUnknown.NO
+                        : status == EmailStatus.DELIVERABLE ? YesNoUnknown.YES : YesNoUnknown.UNKNOWN));
+    }
+
+    /**
+     * Combines this (newer) information with older information about the same domain:
+     * known values of this instance win, unknown values keep what was known before.
+     */
+    public DomainInfo mergedWith(DomainInfo older) {
+        return new DomainInfo(
+                name,
+                known(acceptAll, older.acceptAll),
+                known(disposable, older.disposable),
+                known(free, older.free),
+                known(acceptsMail, older.acceptsMail));
+    }
+
+    private static YesNoUnknown known(YesNoUnknown newer, YesNoUnknown older) {
+        return newer != YesNoUnknown.UNKNOWN ? newer : older;
+    }
+
+    /**
+     * @return The lower-cased part after the last '@' of the address, or null if there is none.
+     */
+    public static String domainOf(String email) {
+        int at = email.lastIndexOf('@');
+        if (at < 0 || at == email.length() - 1) {
+            return null;
+        }
+        return email.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,376 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import de.entwicklertraining.bouncer4j.verify.email.EmailStatus;
+import de.entwicklertraining.bouncer4j.verify.email.VerificationReason;
+import de.entwicklertraining.bouncer4j.verify.email.YesNoUnknown;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Disk-backed store for verification results in a memory-mapped file, so known addresses survive restarts.
+ *
+ * <p>The file is a fixed-size hash table of 24-byte records with open addressing (linear probing).
+ * A record holds the 64-bit hash of the normalised address, the expiry time (epoch millis) and the
+ * result fields as single bytes; the address itself is not stored. Lookups and updates touch only the
+ * mapped pages, so they take microseconds and create no garbage besides the returned snapshot.
+ *
+ * <p>A key is searched in at most {@value #MAX_PROBES} consecutive slots. If all of them are taken by
+ * valid records, the one expiring first is overwritten. The table therefore never needs to grow, but
+ * should be sized with some headroom (e.g. twice the number of expected addresses).
+ *
+ * <pre>{@code
+ * try (MappedVerificationStore store = MappedVerificationStore.open(Path.of("bouncer-results.db"), 4_000_000, TtlPolicy.defaults())) {
+ *     service.setResultCache(TieredResultStore.of(VerificationResultCache.builder().build(), store));
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class MappedVerificationStore implements VerificationResultStore, Closeable {
+
+    private static final int MAGIC = 0x42345652; // "B4VR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 24;
+    private static final int MAX_PROBES = 32;
+    private static final int MAX_CAPACITY = Integer.highestOneBit((Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE);
+
+    // Record layout
+    private static final int OFFSET_HASH = 0;
+    private static final int OFFSET_EXPIRES = 8;
+    private static final int OFFSET_STATUS = 16;
+    private static final int OFFSET_REASON = 17;
+    private static final int OFFSET_ACCEPT_ALL = 18;
+    private static final int OFFSET_DISPOSABLE = 19;
+    private static final int OFFSET_FREE = 20;
+    private static final int OFFSET_FULL_MAILBOX = 21;
+    private static final int OFFSET_TOXICITY = 22;
+
+    // Hash values with a special meaning; real hashes are remapped away from them
+    private static final long EMPTY = 0L;
+    private static final long DELETED = 1L;
+
+    private static final EmailStatus[] STATUSES = EmailStatus.values();
+    private static final VerificationReason[] REASONS = VerificationReason.values();
+    private static final YesNoUnknown[] YES_NO_UNKNOWN = YesNoUnknown.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final TtlPolicy ttlPolicy;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private MappedVerificationStore(FileChannel channel, MappedByteBuffer buffer, int capacity, TtlPolicy ttlPolicy) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.ttlPolicy = ttlPolicy;
+    }
+
+    /**
+     * Opens the store file, creating it if it does not exist.
+     * An existing file keeps the capacity it was created with.
+     *
+     * @param file      The store file.
+     * @param capacity  Number of slots for a new file; rounded up to a power of two.
+     * @param ttlPolicy TTLs per verification status for new records.
+     * @return The opened store; close it to flush and release the file.
+     * @throws IOException if the file cannot be opened or is not a store file.
+     */
+    public static MappedVerificationStore open(Path file, int capacity, TtlPolicy ttlPolicy) throws IOException {
+        Objects.requireNonNull(file, "file cannot be null");
+        Objects.requireNonNull(ttlPolicy, "ttlPolicy cannot be null");
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int slots = Math.max(MAX_PROBES, Integer.highestOneBit(capacity - 1) << 1);
+            int existing = channel.size() > 0 ? readHeader(channel, file) : -1;
+            if (existing > 0) {
+                if (existing != slots) {
+                    System.out.println("Opening existing store " + file + " with its original capacity of " + existing + " slots.");
+                }
+                slots = existing;
+            }
+            long size = HEADER_SIZE + (long) slots * RECORD_SIZE;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // New files are zero-filled
+            if (buffer.getInt(0) != MAGIC) {
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, slots);
+                buffer.putInt(12, RECORD_SIZE);
+                buffer.putInt(0, MAGIC); // Written last: a file without magic is initialised again
+            }
+            return new MappedVerificationStore(channel, buffer, slots, ttlPolicy);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of slots of the existing file, or -1 if its initialisation never completed.
+     */
+    private static int readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Read until the header is complete or the file ends
+        }
+        if (!header.hasRemaining() && header.getInt(0) == 0) {
+            return -1;
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a verification store file: " + file);
+        }
+        if (header.getInt(4) != VERSION || header.getInt(12) != RECORD_SIZE) {
+            throw new IOException("Unsupported verification store version " + header.getInt(4) + " in " + file);
+        }
+        int slots = header.getInt(8);
+        if (Integer.bitCount(slots) != 1 || slots > MAX_CAPACITY
+                || channel.size() < HEADER_SIZE + (long) slots * RECORD_SIZE) {
+            throw new IOException("Corrupt verification store header in " + file);
+        }
+        return slots;
+    }
+
+    @Override
+    public Optional<VerificationSnapshot> get(String email) {
+        Objects.requireNonNull(email, "email cannot be null");
+        String key = VerificationResultCache.key(email);
+        long hash = hash(key);
+        long now = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            int offset = find(hash);
+            if (offset >= 0 && buffer.getLong(offset + OFFSET_EXPIRES) > now) {
+                VerificationSnapshot snapshot = read(offset, key);
+                if (snapshot != null) {
+                    hits.increment();
+                    return Optional.of(snapshot);
+                }
+            }
+            misses.increment();
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(String email, VerificationSnapshot snapshot) {
+        Objects.requireNonNull(email, "email cannot be null");
+        Objects.requireNonNull(snapshot, "snapshot cannot be null");
+        long hash = hash(VerificationResultCache.key(email));
+        Duration ttl = ttlPolicy.ttlFor(snapshot.status());
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (ttl.isZero()) {
+                remove(hash);
+                return;
+            }
+            int offset = findSlotForInsert(hash, now);
+            write(offset, hash, saturatedAdd(now, ttl), snapshot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(String email) {
+        Objects.requireNonNull(email, "email cannot be null");
+        long hash = hash(VerificationResultCache.key(email));
+        lock.writeLock().lock();
+        try {
+            remove(hash);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The buffer offset of the record with the hash, or -1 if there is none.
+     */
+    private int find(long hash) {
+        int slot = (int) (hash & mask);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int offset = offsetOf((slot + probe) & mask);
+            long stored = buffer.getLong(offset + OFFSET_HASH);
+            if (stored == hash) {
+                return offset;
+            }
+            if (stored == EMPTY) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the slot for a record: its current slot, else the first free, deleted or expired slot,
+     * else the slot whose record expires first.
+     */
+    private int findSlotForInsert(long hash, long now) {
+        int slot = (int) (hash & mask);
+        int reusable = -1;
+        int oldest = -1;
+        long oldestExpiry = Long.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int offset = offsetOf((slot + probe) & mask);
+            long stored = buffer.getLong(offset + OFFSET_HASH);
+            if (stored == hash) {
+                return offset;
+            }
+            if (stored == EMPTY) {
+                return reusable >= 0 ? reusable : offset;
+            }
+            long expires = buffer.getLong(offset + OFFSET_EXPIRES);
+            if (reusable < 0 && (stored == DELETED || expires <= now)) {
+                reusable = offset;
+            }
+            if (expires < oldestExpiry) {
+                oldestExpiry = expires;
+                oldest = offset;
+            }
+        }
+        if (reusable >= 0) {
+            return reusable;
+        }
+        evictions.increment();
+        return oldest;
+    }
+
+    private void remove(long hash) {
+        int offset = find(hash);
+        if (offset >= 0) {
+            // A tombstone keeps the probe chains of later records intact
+            buffer.putLong(offset + OFFSET_HASH, DELETED);
+        }
+    }
+
+    private void write(int offset, long hash, long expiresAtMillis, VerificationSnapshot snapshot) {
+        buffer.putLong(offset + OFFSET_EXPIRES, expiresAtMillis);
+        buffer.put(offset + OFFSET_STATUS, (byte) snapshot.status().ordinal());
+        buffer.put(offset + OFFSET_REASON, (byte) snapshot.reason().ordinal());
+        buffer.put(offset + OFFSET_ACCEPT_ALL, (byte) snapshot.acceptAll().ordinal());
+        buffer.put(offset + OFFSET_DISPOSABLE, (byte) snapshot.disposable().ordinal());
+        buffer.put(offset + OFFSET_FREE, (byte) snapshot.free().ordinal());
+        buffer.put(offset + OFFSET_FULL_MAILBOX, (byte) snapshot.fullMailbox().ordinal());
+        Integer toxicity = snapshot.toxicity();
+        buffer.put(offset + OFFSET_TOXICITY, toxicity == null ? -1 : (byte) Math.max(0, Math.min(Byte.MAX_VALUE, toxicity)));
+        buffer.putLong(offset + OFFSET_HASH, hash);
+    }
+
+    /**
+     * @return The snapshot stored at the offset, or null if the record holds unknown enum values.
+     */
+    private VerificationSnapshot read(int offset, String email) {
+        int status = buffer.get(offset + OFFSET_STATUS);
+        int reason = buffer.get(offset + OFFSET_REASON);
+        int acceptAll = buffer.get(offset + OFFSET_ACCEPT_ALL);
+        int disposable = buffer.get(offset + OFFSET_DISPOSABLE);
+        int free = buffer.get(offset + OFFSET_FREE);
+        int fullMailbox = buffer.get(offset + OFFSET_FULL_MAILBOX);
+        int toxicity = buffer.get(offset + OFFSET_TOXICITY);
+        if (!inRange(status, STATUSES.length) || !inRange(reason, REASONS.length)
+                || !inRange(acceptAll, YES_NO_UNKNOWN.length) || !inRange(disposable, YES_NO_UNKNOWN.length)
+                || !inRange(free, YES_NO_UNKNOWN.length) || !inRange(fullMailbox, YES_NO_UNKNOWN.length)) {
+            System.err.println("Warning: Ignoring corrupt verification store record at offset " + offset);
+            return null;
+        }
+        return new VerificationSnapshot(
+                email,
+                STATUSES[status],
+                REASONS[reason],
+                YES_NO_UNKNOWN[acceptAll],
+                YES_NO_UNKNOWN[disposable],
+                YES_NO_UNKNOWN[free],
+                YES_NO_UNKNOWN[fullMailbox],
+                toxicity < 0 ? null : toxicity);
+    }
+
+    private static boolean inRange(int ordinal, int length) {
+        return ordinal >= 0 && ordinal < length;
+    }
+
+    private static int offsetOf(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static long saturatedAdd(long nowMillis, Duration ttl) {
+        try {
+            return Math.addExact(nowMillis, ttl.toMillis());
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes of the key, followed by the MurmurHash3 finalizer
+     * so that the low bits used for the slot index are well distributed.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h == EMPTY || h == DELETED) ? h + 2 : h;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return A snapshot of the hit, miss and eviction counters since the store was opened.
+     */
+    public VerificationResultCache.Stats getStats() {
+        return new VerificationResultCache.Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Writes all changes to the disk.
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            buffer.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
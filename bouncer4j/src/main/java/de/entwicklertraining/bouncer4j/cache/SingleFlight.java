@@ -0,0 +1,115 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.exceptions.BouncerException;
+import de.entwicklertraining.bouncer4j.exceptions.OperationCancelledException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one: the first caller runs the call,
+ * callers arriving while it is in flight wait for it and receive the same result or exception.
+ * Once the call has finished, the next caller with the key starts a new one; results are not cached.
+ * A waiting caller can give up on its own, by its token or an interrupt, without affecting the call or the
+ * other callers waiting for it.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder sharedCalls = new LongAdder();
+
+    /**
+     * Runs the call, or joins the call already in flight for the key.
+     *
+     * @param key  identifies calls that are interchangeable
+     * @param call the call to run if none is in flight
+     * @return the result of the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        return execute(key, CancellationToken.none(), call);
+    }
+
+    /**
+     * Runs the call, or joins the call already in flight for the key and waits for it until the token is
+     * cancelled. The call itself is not cancelled by the token of a caller that joined it; the caller running
+     * it has to pass its token into the call.
+     *
+     * @param key   identifies calls that are interchangeable
+     * @param token cancels the wait of a caller that joined a call in flight
+     * @param call  the call to run if none is in flight
+     * @return the result of the call
+     * @throws OperationCancelledException if the token was cancelled while waiting
+     */
+    public V execute(K key, CancellationToken token, Supplier<V> call) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            sharedCalls.increment();
+            return join(existing, token);
+        }
+        try {
+            V result = call.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private V join(CompletableFuture<V> future, CancellationToken token) {
+        token.throwIfCancelled();
+        // Waits on a copy, so the cancellation of this caller wakes only this caller
+        CompletableFuture<V> waiter = future.whenComplete((result, error) -> { });
+        try (CancellationToken.Registration ignored = token.onCancel(() -> waiter.completeExceptionally(token.toException()))) {
+            while (true) {
+                try {
+                    return waiter.get(token.getRemainingNanos(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    token.throwIfCancelled(); // The deadline has passed before the scheduler cancelled the token
+                }
+            }
+        } catch (ExecutionException e) {
+            // Rethrow what the first caller got, not the wrapper
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new BouncerException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BouncerException("Interrupted while waiting for a shared call", e);
+        }
+    }
+
+    /**
+     * @return The number of calls currently in flight.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return The number of callers that joined a call in flight instead of starting their own.
+     */
+    public long getSharedCount() {
+        return sharedCalls.sum();
+    }
+}
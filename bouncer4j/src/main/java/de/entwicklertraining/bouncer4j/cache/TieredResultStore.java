@@ -0,0 +1,65 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Combines several result stores into one, typically a small in-memory cache in front of a
+ * {@link MappedVerificationStore}. Lookups ask the tiers in order and return the first valid result;
+ * new results are written to every tier.
+ *
+ * <p>Results found in a lower tier are not copied upwards, because the upper tier would give them a fresh
+ * TTL and so extend their lifetime beyond that of the original verification.
+ */
+public final class TieredResultStore implements VerificationResultStore {
+
+    private final List<VerificationResultStore> tiers;
+
+    private TieredResultStore(List<VerificationResultStore> tiers) {
+        this.tiers = tiers;
+    }
+
+    /**
+     * @param tiers The stores, fastest first.
+     */
+    public static TieredResultStore of(VerificationResultStore... tiers) {
+        if (tiers.length == 0) {
+            throw new IllegalArgumentException("At least one tier is required");
+        }
+        return new TieredResultStore(List.of(tiers)); // List.of rejects null tiers
+    }
+
+    @Override
+    public Optional<VerificationSnapshot> get(String email) {
+        Objects.requireNonNull(email, "email cannot be null");
+        for (VerificationResultStore tier : tiers) {
+            Optional<VerificationSnapshot> snapshot = tier.get(email);
+            if (snapshot.isPresent()) {
+                return snapshot;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String email, VerificationSnapshot snapshot) {
+        for (VerificationResultStore tier : tiers) {
+            tier.put(email, snapshot);
+        }
+    }
+
+    @Override
+    public void invalidate(String email) {
+        for (VerificationResultStore tier : tiers) {
+            tier.invalidate(email);
+        }
+    }
+
+    /**
+     * @return The stores, fastest first.
+     */
+    public List<VerificationResultStore> getTiers() {
+        return tiers;
+    }
+}
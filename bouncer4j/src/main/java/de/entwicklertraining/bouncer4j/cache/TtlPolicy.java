@@ -0,0 +1,76 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import de.entwicklertraining.bouncer4j.verify.email.EmailStatus;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * How long a cached verification result stays valid, depending on its status.
+ * Definite results (deliverable, undeliverable) change rarely and can be kept for days,
+ * while unknown results are worth re-verifying soon. A TTL of {@link Duration#ZERO} disables caching for a status.
+ *
+ * <pre>{@code
+ * TtlPolicy policy = TtlPolicy.builder()
+ *         .ttl(EmailStatus.DELIVERABLE, Duration.ofDays(14))
+ *         .ttl(EmailStatus.UNKNOWN, Duration.ZERO)
+ *         .build();
+ * }</pre>
+ */
+public final class TtlPolicy {
+
+    private final Map<EmailStatus, Duration> ttls;
+
+    private TtlPolicy(Builder builder) {
+        this.ttls = new EnumMap<>(builder.ttls);
+    }
+
+    /**
+     * Defaults: 30 days for DELIVERABLE and UNDELIVERABLE, 7 days for RISKY, 1 hour for UNKNOWN.
+     */
+    public static TtlPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * @param status The verification status.
+     * @return The time a result with this status stays valid; {@link Duration#ZERO} if it is not cached.
+     */
+    public Duration ttlFor(EmailStatus status) {
+        return ttls.getOrDefault(status, Duration.ZERO);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private final Map<EmailStatus, Duration> ttls = new EnumMap<>(EmailStatus.class);
+
+        private Builder() {
+            ttls.put(EmailStatus.DELIVERABLE, Duration.ofDays(30));
+            ttls.put(EmailStatus.UNDELIVERABLE, Duration.ofDays(30));
+            ttls.put(EmailStatus.RISKY, Duration.ofDays(7));
+            ttls.put(EmailStatus.UNKNOWN, Duration.ofHours(1));
+        }
+
+        /**
+         * Sets the TTL for one status; {@link Duration#ZERO} disables caching for it.
+         */
+        public Builder ttl(EmailStatus status, Duration ttl) {
+            Objects.requireNonNull(status, "status cannot be null");
+            Objects.requireNonNull(ttl, "ttl cannot be null");
+            if (ttl.isNegative()) {
+                throw new IllegalArgumentException("ttl must not be negative");
+            }
+            ttls.put(status, ttl);
+            return this;
+        }
+
+        public TtlPolicy build() {
+            return new TtlPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory cache for verification results, keyed by the normalised address.
+ *
+ * <p>Every entry expires after the TTL its status has in the {@link TtlPolicy}. When the cache is full,
+ * the least recently used entry is evicted. Hits, misses and evictions are counted, see {@link #getStats()}.
+ *
+ * <pre>{@code
+ * VerificationResultCache cache = VerificationResultCache.builder().maximumSize(100_000).build();
+ * service.setResultCache(cache);
+ * }</pre>
+ */
+public final class VerificationResultCache implements VerificationResultStore {
+
+    private final int maximumSize;
+    private final TtlPolicy ttlPolicy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(VerificationSnapshot snapshot, long expiresAtNanos) {
+    }
+
+    private VerificationResultCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.ttlPolicy = builder.ttlPolicy;
+        // Access order turns the map into an LRU list; the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > VerificationResultCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Normalises an address to its cache key: surrounding whitespace is removed and the address is lower-cased.
+     *
+     * @param email The address.
+     * @return The key under which results for the address are stored.
+     */
+    public static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param email The address to look up.
+     * @return The cached result, or empty if there is none or it has expired.
+     */
+    @Override
+    public Optional<VerificationSnapshot> get(String email) {
+        Objects.requireNonNull(email, "email cannot be null");
+        String key = key(email);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos - System.nanoTime() > 0) {
+                hits.increment();
+                return Optional.of(entry.snapshot);
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a result under the given address. Results whose status has a TTL of zero are not stored,
+     * and an older entry for the address is removed.
+     *
+     * @param email    The address the result was requested for.
+     * @param snapshot The verification result.
+     */
+    @Override
+    public void put(String email, VerificationSnapshot snapshot) {
+        Objects.requireNonNull(email, "email cannot be null");
+        Objects.requireNonNull(snapshot, "snapshot cannot be null");
+        String key = key(email);
+        Duration ttl = ttlPolicy.ttlFor(snapshot.status());
+        lock.lock();
+        try {
+            if (ttl.isZero()) {
+                entries.remove(key);
+            } else {
+                entries.put(key, new Entry(snapshot, System.nanoTime() + saturatedNanos(ttl)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the cached result of an address, e.g. after a bounce was reported for it.
+     */
+    @Override
+    public void invalidate(String email) {
+        Objects.requireNonNull(email, "email cannot be null");
+        lock.lock();
+        try {
+            entries.remove(key(email));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of cached entries, including expired ones not yet removed.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public TtlPolicy getTtlPolicy() {
+        return ttlPolicy;
+    }
+
+    /**
+     * @return A snapshot of the hit, miss and eviction counters since creation.
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static long saturatedNanos(Duration ttl) {
+        try {
+            return ttl.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE / 2; // Effectively forever, without overflowing System.nanoTime() + ttl
+        }
+    }
+
+    /**
+     * Counters of a result cache.
+     *
+     * @param hits      Lookups answered from the cache.
+     * @param misses    Lookups that found no valid entry.
+     * @param evictions Entries removed because the cache was full.
+     */
+    public record Stats(long hits, long misses, long evictions) {
+
+        /**
+         * @return The share of lookups answered from the cache, between 0 and 1.
+         */
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int maximumSize = 10_000;
+        private TtlPolicy ttlPolicy = TtlPolicy.defaults();
+
+        /**
+         * Maximum number of cached addresses (default 10,000).
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * TTLs per verification status (default {@link TtlPolicy#defaults()}).
+         */
+        public Builder ttlPolicy(TtlPolicy ttlPolicy) {
+            this.ttlPolicy = Objects.requireNonNull(ttlPolicy, "ttlPolicy cannot be null");
+            return this;
+        }
+
+        public VerificationResultCache build() {
+            return new VerificationResultCache(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import java.util.Optional;
+
+/**
+ * A place where verification results are kept between checks of the same address.
+ * Implementations decide how long a result stays valid, usually with a {@link TtlPolicy},
+ * and must be safe for use by several threads.
+ *
+ * @see VerificationResultCache
+ * @see MappedVerificationStore
+ * @see TieredResultStore
+ */
+public interface VerificationResultStore {
+
+    /**
+     * @param email The address to look up.
+     * @return The stored result, or empty if there is none or it has expired.
+     */
+    Optional<VerificationSnapshot> get(String email);
+
+    /**
+     * Stores a result under the given address.
+     *
+     * @param email    The address the result was requested for.
+     * @param snapshot The verification result.
+     */
+    void put(String email, VerificationSnapshot snapshot);
+
+    /**
+     * Removes the stored result of an address.
+     */
+    void invalidate(String email);
+}
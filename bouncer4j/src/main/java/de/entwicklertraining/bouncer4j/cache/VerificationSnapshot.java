@@ -0,0 +1,69 @@
+package de.entwicklertraining.bouncer4j.cache;
+
+import de.entwicklertraining.bouncer4j.batch.BatchResultItem;
+import de.entwicklertraining.bouncer4j.verify.email.Account;
+import de.entwicklertraining.bouncer4j.verify.email.Domain;
+import de.entwicklertraining.bouncer4j.verify.email.EmailStatus;
+import de.entwicklertraining.bouncer4j.verify.email.VerificationReason;
+import de.entwicklertraining.bouncer4j.verify.email.VerifyEmailResponse;
+import de.entwicklertraining.bouncer4j.verify.email.YesNoUnknown;
+
+import java.util.Objects;
+
+/**
+ * The part of a verification result that is needed to evaluate an address,
+ * independent of whether it came from a single verification or a batch.
+ * Snapshots are immutable and small, so they can be cached without holding on to the JSON of the response.
+ *
+ * @param email       The verified address as returned by Bouncer.
+ * @param status      The verification status.
+ * @param reason      The reason for the status.
+ * @param acceptAll   Whether the domain accepts all addresses.
+ * @param disposable  Whether the domain is a disposable email provider.
+ * @param free        Whether the domain is a free email provider.
+ * @param fullMailbox Whether the mailbox is full.
+ * @param toxicity    The toxicity score, or null if not available.
+ */
+public record VerificationSnapshot(
+        String email,
+        EmailStatus status,
+        VerificationReason reason,
+        YesNoUnknown acceptAll,
+        YesNoUnknown disposable,
+        YesNoUnknown free,
+        YesNoUnknown fullMailbox,
+        Integer toxicity) {
+
+    public VerificationSnapshot {
+        Objects.requireNonNull(email, "email cannot be null");
+        Objects.requireNonNull(status, "status cannot be null");
+        reason = reason != null ? reason : VerificationReason.UNKNOWN;
+        acceptAll = acceptAll != null ? acceptAll : YesNoUnknown.UNKNOWN;
+        disposable = disposable != null ? disposable : YesNoUnknown.UNKNOWN;
+        free = free != null ? free : YesNoUnknown.UNKNOWN;
+        fullMailbox = fullMailbox != null ? fullMailbox : YesNoUnknown.UNKNOWN;
+    }
+
+    public static VerificationSnapshot of(VerifyEmailResponse response) {
+        return of(response.getEmail(), response.getStatus(), response.getReason(),
+                response.getDomain().orElse(null), response.getAccount().orElse(null), response.getToxicity());
+    }
+
+    public static VerificationSnapshot of(BatchResultItem item) {
+        return of(item.getEmail(), item.getStatus(), item.getReason(),
+                item.getDomain().orElse(null), item.getAccount().orElse(null), item.getToxicity());
+    }
+
+    private static VerificationSnapshot of(String email, EmailStatus status, VerificationReason reason,
+                                           Domain domain, Account account, Integer toxicity) {
+        return new VerificationSnapshot(
+                email,
+                status,
+                reason,
+                domain != null ? domain.getAcceptAll() : null,
+                domain != null ? domain.getDisposable() : null,
+                domain != null ? domain.getFree() : null,
+                account != null ? account.getFullMailbox() : null,
+                toxicity);
+    }
+}
@@ -3,8 +3,11 @@ package de.entwicklertraining.bouncer4j.credits;
 import de.entwicklertraining.api.base.ApiRequestBuilderBase;
 import de.entwicklertraining.bouncer4j.BouncerClient;
 import de.entwicklertraining.bouncer4j.BouncerRequest;
+import de.entwicklertraining.bouncer4j.EndpointFamily;
 import org.json.JSONObject;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Represents a request to the Bouncer Credits API.
  * This endpoint returns the current credit balance for the API key.
@@ -20,6 +23,11 @@ public final class CheckCreditsRequest extends BouncerRequest<CheckCreditsRespon
         return "/v1.1/credits";
     }
 
+    @Override
+    public EndpointFamily getEndpointFamily() {
+        return EndpointFamily.CREDITS;
+    }
+
     @Override
     public String getHttpMethod() {
         return "GET";
@@ -61,5 +69,19 @@ public final class CheckCreditsRequest extends BouncerRequest<CheckCreditsRespon
         public CheckCreditsResponse executeWithExponentialBackoff() {
             return this.bouncerClient.sendRequestWithExponentialBackoff(build());
         }
+
+        /**
+         * Sends the request asynchronously on the client's {@link BouncerClient#getAsyncExecutor() async executor}.
+         */
+        public CompletableFuture<CheckCreditsResponse> executeAsync() {
+            return this.bouncerClient.sendRequestAsync(build());
+        }
+
+        /**
+         * Sends the request asynchronously, retrying with exponential backoff.
+         */
+        public CompletableFuture<CheckCreditsResponse> executeWithExponentialBackoffAsync() {
+            return this.bouncerClient.sendRequestWithExponentialBackoffAsync(build());
+        }
     }
 }
\ No newline at end of file
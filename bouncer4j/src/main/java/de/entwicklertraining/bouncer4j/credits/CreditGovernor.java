@@ -0,0 +1,332 @@
+package de.entwicklertraining.bouncer4j.credits;
+
+import de.entwicklertraining.bouncer4j.BouncerClient;
+import de.entwicklertraining.bouncer4j.exceptions.BouncerException;
+import de.entwicklertraining.bouncer4j.exceptions.InsufficientCreditsException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control based on the credit balance of the account.
+ *
+ * <p>The governor keeps a local copy of the balance reported by {@link CheckCreditsRequest} and
+ * deducts the cost of every request before it is sent. Requests the account cannot afford are
+ * rejected with an {@link InsufficientCreditsException}, or wait up to {@code maxWait} for a top-up,
+ * instead of being uploaded and failing with HTTP 402. The balance is refreshed asynchronously when
+ * it is older than {@code refreshInterval}, so the credits endpoint is never called on the request path.
+ *
+ * <p>Until the first refresh has completed the balance is unknown and all requests are admitted;
+ * join {@link #refresh()} at startup to avoid that window.
+ *
+ * <pre>{@code
+ * CreditGovernor governor = CreditGovernor.builder(client).reserve(100).maxWait(Duration.ofMinutes(10)).build();
+ * governor.refresh().join();
+ * client.setCreditGovernor(governor);
+ * }</pre>
+ */
+public final class CreditGovernor {
+
+    private static final long UNKNOWN = -1;
+    /** Minimum time between two refreshes triggered by a shortage or an HTTP 402. */
+    private static final long MIN_REFRESH_SPACING_NANOS = TimeUnit.SECONDS.toNanos(5);
+    /** How often waiting requests check whether a refresh is due. */
+    private static final long WAIT_SLICE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final BouncerClient client;
+    private final long refreshIntervalNanos;
+    private final Duration maxWait;
+    private final int reserve;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition balanceChanged = lock.newCondition();
+    private long balance = UNKNOWN;
+    private long issued; // credits deducted locally since creation
+    private long lastRefreshStartNanos;
+    private boolean refreshStarted;
+    private CompletableFuture<Long> pendingRefresh;
+    private Instant lastRefresh;
+
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private CreditGovernor(Builder builder) {
+        this.client = builder.client;
+        this.refreshIntervalNanos = builder.refreshInterval.toNanos();
+        this.maxWait = builder.maxWait;
+        this.reserve = builder.reserve;
+    }
+
+    /**
+     * Deducts the credits from the local balance, waiting up to {@code maxWait} until the account can afford them.
+     *
+     * @param credits The cost of the request that is about to be sent.
+     * @throws InsufficientCreditsException if the balance does not cover the credits in time.
+     * @throws InterruptedException         if interrupted while waiting.
+     */
+    public void acquire(int credits) throws InterruptedException {
+        if (credits < 0) {
+            throw new IllegalArgumentException("credits must not be negative");
+        }
+        if (credits == 0) {
+            return;
+        }
+        lock.lockInterruptibly();
+        try {
+            refreshIfOlderThan(refreshIntervalNanos);
+            long deadline = System.nanoTime() + maxWait.toNanos();
+            boolean waited = false;
+            while (balance != UNKNOWN && balance - reserve < credits) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    rejected.increment();
+                    throw new InsufficientCreditsException(credits, balance,
+                            "Insufficient credits: " + credits + " required, " + balance + " available"
+                                    + (reserve > 0 ? " (" + reserve + " reserved)" : ""));
+                }
+                if (!waited) {
+                    waited = true;
+                    delayed.increment();
+                }
+                // Look for a top-up while waiting
+                refreshIfOlderThan(MIN_REFRESH_SPACING_NANOS);
+                balanceChanged.awaitNanos(Math.min(remainingNanos, WAIT_SLICE_NANOS));
+            }
+            if (balance != UNKNOWN) {
+                balance -= credits;
+            }
+            issued += credits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns credits of a request that was not charged because it failed before it was sent.
+     */
+    public void refund(int credits) {
+        if (credits <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (balance != UNKNOWN) {
+                balance += credits;
+            }
+            // Never charged, so a refresh in flight must not deduct these credits from the server's balance
+            issued -= credits;
+            balanceChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a request failed after it was sent, so it may or may not have been charged. The local
+     * deduction is kept and the balance is fetched again, unless a refresh started only moments ago.
+     */
+    public void resync() {
+        lock.lock();
+        try {
+            refreshIfOlderThan(MIN_REFRESH_SPACING_NANOS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that the server answered with HTTP 402: the local balance is set to zero until a refresh says otherwise.
+     */
+    public void onPaymentRequired() {
+        lock.lock();
+        try {
+            balance = 0;
+            refreshIfOlderThan(MIN_REFRESH_SPACING_NANOS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fetches the balance from the server, or joins a refresh that is already in flight.
+     * Credits deducted while the refresh is in flight are deducted from the new balance as well.
+     *
+     * @return A future completing with the new local balance.
+     */
+    public CompletableFuture<Long> refresh() {
+        lock.lock();
+        try {
+            return pendingRefresh != null ? pendingRefresh : startRefresh();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a refresh unless one is in flight or the last one started less than {@code ageNanos} ago.
+     * Must be called with the lock held.
+     */
+    private void refreshIfOlderThan(long ageNanos) {
+        if (pendingRefresh != null) {
+            return;
+        }
+        if (refreshStarted && System.nanoTime() - lastRefreshStartNanos < ageNanos) {
+            return;
+        }
+        startRefresh();
+    }
+
+    /**
+     * Must be called with the lock held.
+     *
+     * @return The refresh; it may already be complete and no longer pending.
+     */
+    private CompletableFuture<Long> startRefresh() {
+        refreshStarted = true;
+        lastRefreshStartNanos = System.nanoTime();
+        long issuedAtStart = issued;
+        CompletableFuture<Long> refresh;
+        try {
+            refresh = client.credits().executeAsync()
+                    .thenApply(response -> applyBalance(response.getCredits(), issuedAtStart));
+        } catch (RuntimeException e) { // e.g. the async executor rejected the task
+            refresh = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Long> started = refresh;
+        pendingRefresh = started;
+        started.whenComplete((newBalance, error) -> {
+            lock.lock();
+            try {
+                if (pendingRefresh == started) {
+                    pendingRefresh = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                System.err.println("Failed to refresh the credit balance: " + error.getMessage());
+            }
+        });
+        return started;
+    }
+
+    private long applyBalance(int credits, long issuedAtStart) {
+        if (credits < 0) {
+            throw new BouncerException("Credits response did not contain a balance");
+        }
+        lock.lock();
+        try {
+            // Requests issued while the refresh was in flight may not be included in the server's answer yet.
+            // A refund of a request issued before the refresh must not raise the server's answer either.
+            balance = Math.max(0, credits - Math.max(0, issued - issuedAtStart));
+            lastRefresh = Instant.now();
+            balanceChanged.signalAll();
+            return balance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The local balance, or -1 if it has not been fetched yet.
+     */
+    public long getAvailableCredits() {
+        lock.lock();
+        try {
+            return balance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return When the balance was last fetched from the server, or null if it never was.
+     */
+    public Instant getLastRefresh() {
+        lock.lock();
+        try {
+            return lastRefresh;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of requests that had to wait for credits.
+     */
+    public long getDelayedCount() {
+        return delayed.sum();
+    }
+
+    /**
+     * @return The number of requests rejected for lack of credits.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public static Builder builder(BouncerClient client) {
+        return new Builder(client);
+    }
+
+    public static final class Builder {
+        private final BouncerClient client;
+        private Duration refreshInterval = Duration.ofMinutes(1);
+        private Duration maxWait = Duration.ZERO;
+        private int reserve;
+
+        private Builder(BouncerClient client) {
+            this.client = Objects.requireNonNull(client, "client cannot be null");
+        }
+
+        /**
+         * Age after which the next request triggers an asynchronous refresh of the balance (default 1 minute).
+         */
+        public Builder refreshInterval(Duration refreshInterval) {
+            Objects.requireNonNull(refreshInterval, "refreshInterval cannot be null");
+            if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+                throw new IllegalArgumentException("refreshInterval must be positive");
+            }
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        /**
+         * How long a request waits for credits before it is rejected (default 0: reject at once).
+         */
+        public Builder maxWait(Duration maxWait) {
+            Objects.requireNonNull(maxWait, "maxWait cannot be null");
+            if (maxWait.isNegative() || maxWait.compareTo(Duration.ofDays(1)) > 0) {
+                throw new IllegalArgumentException("maxWait must be between 0 and 1 day");
+            }
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Credits that are never spent by admitted requests, e.g. to keep some for interactive checks (default 0).
+         */
+        public Builder reserve(int reserve) {
+            if (reserve < 0) {
+                throw new IllegalArgumentException("reserve must not be negative");
+            }
+            this.reserve = reserve;
+            return this;
+        }
+
+        /**
+         * Creates the governor; the first refresh of the balance starts right away.
+         */
+        public CreditGovernor build() {
+            CreditGovernor governor = new CreditGovernor(this);
+            governor.refresh();
+            return governor;
+        }
+    }
+}
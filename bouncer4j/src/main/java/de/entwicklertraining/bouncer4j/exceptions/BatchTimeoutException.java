@@ -0,0 +1,18 @@
+package de.entwicklertraining.bouncer4j.exceptions;
+
+/**
+ * Wird geworfen, wenn ein Batch nicht innerhalb der erlaubten Wartezeit abgeschlossen wurde.
+ */
+public class BatchTimeoutException extends BouncerException {
+
+    private final String batchId;
+
+    public BatchTimeoutException(String batchId, String message) {
+        super(message);
+        this.batchId = batchId;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+}
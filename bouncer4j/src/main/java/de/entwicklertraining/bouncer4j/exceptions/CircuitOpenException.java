@@ -0,0 +1,29 @@
+package de.entwicklertraining.bouncer4j.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Wird geworfen, wenn ein Circuit Breaker offen ist und der Request deshalb gar nicht erst gesendet wurde.
+ */
+public class CircuitOpenException extends BouncerException {
+
+    private final String circuitName;
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String circuitName, Duration retryAfter, String message) {
+        super(message);
+        this.circuitName = circuitName;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getCircuitName() {
+        return circuitName;
+    }
+
+    /**
+     * @return Die Zeit, nach der der Circuit Breaker wieder Test-Requests zulässt.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
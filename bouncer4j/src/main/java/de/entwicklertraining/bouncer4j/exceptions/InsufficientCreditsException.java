@@ -0,0 +1,25 @@
+package de.entwicklertraining.bouncer4j.exceptions;
+
+/**
+ * Wird geworfen, wenn ein Request mehr Credits benötigt, als das Konto nach lokaler Buchführung noch hat.
+ * Der Request wurde in diesem Fall nicht gesendet.
+ */
+public class InsufficientCreditsException extends BouncerException {
+
+    private final int requiredCredits;
+    private final long availableCredits;
+
+    public InsufficientCreditsException(int requiredCredits, long availableCredits, String message) {
+        super(message);
+        this.requiredCredits = requiredCredits;
+        this.availableCredits = availableCredits;
+    }
+
+    public int getRequiredCredits() {
+        return requiredCredits;
+    }
+
+    public long getAvailableCredits() {
+        return availableCredits;
+    }
+}
@@ -0,0 +1,21 @@
+package de.entwicklertraining.bouncer4j.exceptions;
+
+/**
+ * Wird geworfen, wenn eine Operation abgebrochen wurde oder ihre Deadline überschritten hat.
+ */
+public class OperationCancelledException extends BouncerException {
+
+    private final boolean deadlineExceeded;
+
+    public OperationCancelledException(boolean deadlineExceeded, String message) {
+        super(message);
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    /**
+     * @return true, wenn die Deadline überschritten wurde; false, wenn die Operation explizit abgebrochen wurde.
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
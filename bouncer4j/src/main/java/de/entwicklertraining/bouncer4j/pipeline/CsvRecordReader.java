@@ -0,0 +1,198 @@
+package de.entwicklertraining.bouncer4j.pipeline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV records from a channel through a fixed-size buffer, decoding only as much as the current record needs.
+ * Quoted fields may contain delimiters, escaped quotes ({@code ""}) and line breaks. Every record is returned
+ * verbatim (without its line break) together with the unquoted value of one column, so it can be written out
+ * again unchanged.
+ */
+final class CsvRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder;
+    private final char delimiter;
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private boolean endOfInput;
+    private boolean flushed;
+    private boolean firstRecord = true;
+
+    /**
+     * A record as read from the file.
+     *
+     * @param raw   The record text without its line break.
+     * @param value The unquoted value of the requested column, or an empty string if the record has no such column.
+     */
+    record Row(String raw, String value) {
+    }
+
+    CsvRecordReader(ReadableByteChannel channel, Charset charset, char delimiter) {
+        this.channel = channel;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        this.delimiter = delimiter;
+        this.chars.flip(); // Empty, ready for reading
+    }
+
+    /**
+     * @param column The index of the column whose value is returned.
+     * @return The next record, or null at the end of the input. Empty lines are skipped.
+     * @throws IOException if reading fails or the input is not valid in the charset.
+     */
+    Row next(int column) throws IOException {
+        StringBuilder raw = new StringBuilder(128);
+        StringBuilder value = new StringBuilder(64);
+        int field = 0;
+        boolean inQuotes = false;
+        boolean quoteSeen = false; // the previous character closed a quoted section or is the first of ""
+        while (true) {
+            if (!chars.hasRemaining() && !fill()) {
+                break;
+            }
+            char c = chars.get();
+            if (firstRecord && raw.isEmpty() && c == '\uFEFF') {
+                continue; // Byte order mark
+            }
+            if (inQuotes) {
+                raw.append(c);
+                if (c == '"') {
+                    inQuotes = false;
+                    quoteSeen = true;
+                } else if (field == column) {
+                    value.append(c);
+                }
+                continue;
+            }
+            if (c == '\n') {
+                int length = raw.length();
+                if (length > 0 && raw.charAt(length - 1) == '\r') {
+                    raw.setLength(length - 1);
+                }
+                if (raw.isEmpty()) {
+                    field = 0;
+                    quoteSeen = false;
+                    continue; // Empty line
+                }
+                return row(raw, value);
+            }
+            raw.append(c);
+            if (c == '"') {
+                if (quoteSeen && field == column) {
+                    value.append('"'); // Escaped quote inside a quoted field
+                }
+                inQuotes = true;
+                quoteSeen = false;
+            } else if (c == delimiter) {
+                field++;
+                quoteSeen = false;
+            } else {
+                quoteSeen = false;
+                if (field == column && c != '\r') {
+                    value.append(c);
+                }
+            }
+        }
+        int length = raw.length();
+        if (length > 0 && raw.charAt(length - 1) == '\r') {
+            raw.setLength(length - 1);
+        }
+        return raw.isEmpty() ? null : row(raw, value);
+    }
+
+    /**
+     * Splits a record returned by {@link #next(int)} into its unquoted field values, e.g. to read a header row.
+     */
+    static List<String> fields(String raw, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quoteSeen = false;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    inQuotes = false;
+                    quoteSeen = true;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                if (quoteSeen) {
+                    value.append('"');
+                }
+                inQuotes = true;
+                quoteSeen = false;
+            } else if (c == delimiter) {
+                fields.add(value.toString());
+                value.setLength(0);
+                quoteSeen = false;
+            } else {
+                value.append(c);
+                quoteSeen = false;
+            }
+        }
+        fields.add(value.toString());
+        return fields;
+    }
+
+    private Row row(StringBuilder raw, StringBuilder value) {
+        firstRecord = false;
+        return new Row(raw.toString(), value.toString());
+    }
+
+    /**
+     * Decodes the next characters into {@code chars}.
+     *
+     * @return false at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        if (flushed) {
+            return false;
+        }
+        chars.clear();
+        try {
+            while (chars.position() == 0) {
+                if (!endOfInput && channel.read(bytes) < 0) {
+                    endOfInput = true;
+                }
+                bytes.flip();
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                bytes.compact();
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (endOfInput && result.isUnderflow()) {
+                    decoder.flush(chars);
+                    flushed = true;
+                    break;
+                }
+            }
+        } catch (CharacterCodingException e) {
+            throw new IOException("Input is not valid " + decoder.charset() + ": " + e.getMessage(), e);
+        } finally {
+            chars.flip();
+        }
+        return chars.hasRemaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
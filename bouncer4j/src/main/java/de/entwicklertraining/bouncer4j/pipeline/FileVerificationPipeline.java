@@ -0,0 +1,463 @@
+package de.entwicklertraining.bouncer4j.pipeline;
+
+import de.entwicklertraining.bouncer4j.BouncerCheckConfig;
+import de.entwicklertraining.bouncer4j.BouncerCheckService;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.EmailCheckResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verifies the addresses of a CSV file and writes every row, extended by the check result, to an output file.
+ *
+ * <p>The input is read through a file channel with a fixed-size buffer and cut into chunks of {@code chunkSize}
+ * rows. Up to {@code maxChunksInFlight} chunks are verified concurrently, each as a batch job (small chunks,
+ * typically the last one, with parallel single calls). While Bouncer works on them, the next chunks are read and
+ * completed chunks are written, in input order. Only the rows of the chunks in flight are held in memory, so
+ * heap usage depends on {@code chunkSize * maxChunksInFlight}, not on the size of the file.
+ *
+ * <p>Every output row is the input row, unchanged, followed by the columns {@code bouncer_reachable},
+ * {@code bouncer_safe_to_send} and {@code bouncer_reason}. Duplicates are only merged within a chunk;
+ * configure a result cache on the service to avoid paying twice for duplicates across chunks.
+ *
+ * <pre>{@code
+ * FileVerificationPipeline pipeline = FileVerificationPipeline.builder(service)
+ *         .emailColumn("email")
+ *         .chunkSize(10_000)
+ *         .build();
+ * FileVerificationPipeline.Summary summary = pipeline.run(Path.of("in.csv"), Path.of("out.csv"), config);
+ * }</pre>
+ */
+public final class FileVerificationPipeline {
+
+    private static final String[] RESULT_COLUMNS = {"bouncer_reachable", "bouncer_safe_to_send", "bouncer_reason"};
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final BouncerCheckService service;
+    private final String emailColumnName;
+    private final int emailColumnIndex;
+    private final boolean header;
+    private final char delimiter;
+    private final Charset charset;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int singleVerifyThreshold;
+    private final int singleVerifyConcurrency;
+
+    private FileVerificationPipeline(Builder builder) {
+        if (builder.emailColumnName != null && !builder.header) {
+            throw new IllegalArgumentException("emailColumn(String) requires a header row");
+        }
+        this.service = builder.service;
+        this.emailColumnName = builder.emailColumnName;
+        this.emailColumnIndex = builder.emailColumnIndex;
+        this.header = builder.header;
+        this.delimiter = builder.delimiter;
+        this.charset = builder.charset;
+        this.chunkSize = builder.chunkSize;
+        this.maxChunksInFlight = builder.maxChunksInFlight;
+        this.singleVerifyThreshold = builder.singleVerifyThreshold;
+        this.singleVerifyConcurrency = builder.singleVerifyConcurrency;
+    }
+
+    /**
+     * Verifies all rows of the input file and writes the annotated rows to the output file.
+     *
+     * @see #run(Path, Path, BouncerCheckConfig, CancellationToken)
+     */
+    public Summary run(Path input, Path output, BouncerCheckConfig config) throws IOException {
+        return run(input, output, config, CancellationToken.none());
+    }
+
+    /**
+     * Verifies all rows of the input file and writes the annotated rows to the output file, which is created or
+     * replaced. Once the token is cancelled, the chunks in flight are aborted and their batches deleted; rows
+     * written so far stay in the output file.
+     *
+     * @param input  The CSV file to read.
+     * @param output The CSV file to write.
+     * @param config The configuration for security evaluation.
+     * @param token  Cancels the run, e.g. at a deadline.
+     * @return Counts of the rows written.
+     * @throws de.entwicklertraining.bouncer4j.exceptions.OperationCancelledException if the token was cancelled.
+     * @throws IOException if reading or writing fails, the email column is not found in the header,
+     *                     or the calling thread is interrupted ({@link InterruptedIOException}).
+     */
+    public Summary run(Path input, Path output, BouncerCheckConfig config, CancellationToken token) throws IOException {
+        Objects.requireNonNull(input, "input cannot be null");
+        Objects.requireNonNull(output, "output cannot be null");
+        Objects.requireNonNull(config, "config cannot be null");
+        Objects.requireNonNull(token, "token cannot be null");
+        long start = System.nanoTime();
+        try (CsvRecordReader reader = new CsvRecordReader(FileChannel.open(input, StandardOpenOption.READ), charset, delimiter);
+             Writer writer = new BufferedWriter(Channels.newWriter(FileChannel.open(output,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                     charset), WRITE_BUFFER_SIZE)) {
+            Run run = new Run(writer, config, token);
+            run.execute(reader);
+            Summary summary = run.summary(Duration.ofNanos(System.nanoTime() - start));
+            System.out.println("Verified " + summary.rows() + " rows of " + input + " in " + summary.duration().toSeconds()
+                    + "s: " + summary.safeToSend() + " safe to send, " + summary.notSafe() + " not safe.");
+            return summary;
+        }
+    }
+
+    /**
+     * Counts of a finished run.
+     *
+     * @param rows       Data rows written (without the header).
+     * @param safeToSend Rows whose address is safe to send to.
+     * @param notSafe    Rows whose address is not safe, including rows that could not be verified.
+     * @param duration   How long the run took.
+     */
+    public record Summary(long rows, long safeToSend, long notSafe, Duration duration) {
+    }
+
+    /**
+     * State of one run. The calling thread reads the input and dispatches chunks; the thread completing a chunk
+     * writes every chunk that is next in input order.
+     */
+    private final class Run {
+        private final Writer writer;
+        private final BouncerCheckConfig config;
+        private final CancellationToken callerToken;
+        private final CancellationToken token = CancellationToken.create();
+        private final CancellationToken.Registration callerCancellation;
+        private final Semaphore chunkSlots = new Semaphore(maxChunksInFlight);
+
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final Map<Long, Chunk> completed = new HashMap<>();
+        private long nextToWrite;
+        private long rows;
+        private long safeToSend;
+        private IOException failure;
+
+        private record Chunk(List<String> rows, List<EmailCheckResult> results) {
+        }
+
+        private Run(Writer writer, BouncerCheckConfig config, CancellationToken callerToken) {
+            this.writer = writer;
+            this.config = config;
+            this.callerToken = callerToken;
+            // An own token, so a failed write can abort the other chunks without cancelling the caller's token
+            this.callerCancellation = callerToken.onCancel(token::cancel);
+        }
+
+        private void execute(CsvRecordReader reader) throws IOException {
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("bouncer-file-pipeline-", 0).factory())) {
+                try {
+                    readAndDispatch(reader, executor);
+                    // Wait until every chunk is written
+                    chunkSlots.acquire(maxChunksInFlight);
+                } catch (InterruptedException e) {
+                    token.cancel();
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while verifying the file");
+                } catch (IOException | RuntimeException e) {
+                    token.cancel(); // Abort the chunks in flight
+                    throw e;
+                }
+            } finally {
+                callerCancellation.close();
+            }
+            writeLock.lock();
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (callerToken.isCancelled()) {
+                throw callerToken.toException();
+            }
+        }
+
+        private void readAndDispatch(CsvRecordReader reader, ExecutorService executor) throws IOException, InterruptedException {
+            int column = emailColumnIndex;
+            if (header) {
+                CsvRecordReader.Row headerRow = reader.next(0);
+                if (headerRow == null) {
+                    return; // Empty file
+                }
+                if (emailColumnName != null) {
+                    column = findColumn(headerRow.raw());
+                }
+                writer.write(headerRow.raw());
+                for (String resultColumn : RESULT_COLUMNS) {
+                    writer.write(delimiter);
+                    writer.write(resultColumn);
+                }
+                writer.write('\n');
+            }
+
+            long sequence = 0;
+            List<String> chunkRows = new ArrayList<>(Math.min(chunkSize, 1024));
+            List<String> chunkEmails = new ArrayList<>(Math.min(chunkSize, 1024));
+            CsvRecordReader.Row row;
+            while (!token.isCancelled() && (row = reader.next(column)) != null) {
+                chunkRows.add(row.raw());
+                chunkEmails.add(row.value().trim());
+                if (chunkRows.size() == chunkSize) {
+                    dispatch(executor, sequence++, chunkRows, chunkEmails);
+                    chunkRows = new ArrayList<>(chunkSize);
+                    chunkEmails = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunkRows.isEmpty() && !token.isCancelled()) {
+                dispatch(executor, sequence, chunkRows, chunkEmails);
+            }
+        }
+
+        private int findColumn(String headerRaw) throws IOException {
+            List<String> names = CsvRecordReader.fields(headerRaw, delimiter);
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).trim().equalsIgnoreCase(emailColumnName)) {
+                    return i;
+                }
+            }
+            throw new IOException("Column '" + emailColumnName + "' not found in header: " + headerRaw);
+        }
+
+        private void dispatch(ExecutorService executor, long sequence, List<String> chunkRows, List<String> chunkEmails)
+                throws InterruptedException {
+            chunkSlots.acquire(); // Released once the chunk is written
+            executor.execute(() -> {
+                List<EmailCheckResult> results;
+                try {
+                    results = chunkEmails.size() < singleVerifyThreshold
+                            ? service.checkEmailsConcurrently(chunkEmails, config, singleVerifyConcurrency, token)
+                            : service.checkBatchEmailsInOrder(chunkEmails, config, Integer.MAX_VALUE, token);
+                } catch (Throwable e) {
+                    // Also an Error: the chunk has to free its slot, or the run waits for it forever
+                    fail(new IOException("Verification of chunk " + (sequence + 1) + " failed: " + e.getMessage(), e));
+                    results = null; // Nothing is written after a failure; the chunk only frees its slot
+                }
+                writeInOrder(sequence, new Chunk(chunkRows, results));
+            });
+        }
+
+        /**
+         * Writes the chunk if it is next in input order, followed by all completed chunks after it;
+         * otherwise keeps it until its predecessors are written.
+         */
+        private void writeInOrder(long sequence, Chunk chunk) {
+            writeLock.lock();
+            try {
+                completed.put(sequence, chunk);
+                Chunk next;
+                while ((next = completed.remove(nextToWrite)) != null) {
+                    long written = nextToWrite++;
+                    try {
+                        if (failure == null) {
+                            write(next);
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        fail(e);
+                    } catch (RuntimeException | Error e) {
+                        // E.g. fewer results than rows; the run must fail instead of silently dropping rows,
+                        // and the loop goes on so every waiting chunk frees its slot
+                        fail(new IOException("Writing chunk " + (written + 1) + " failed: " + e.getMessage(), e));
+                    } finally {
+                        chunkSlots.release();
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        /**
+         * Must be called with the write lock held.
+         */
+        private void write(Chunk chunk) throws IOException {
+            for (int i = 0; i < chunk.rows().size(); i++) {
+                EmailCheckResult result = chunk.results().get(i);
+                writer.write(chunk.rows().get(i));
+                writer.write(delimiter);
+                writer.write(Boolean.toString(result.isReachable()));
+                writer.write(delimiter);
+                writer.write(Boolean.toString(result.isSafeToSend()));
+                writer.write(delimiter);
+                writer.write(quote(result.reasonIfNotSafe()));
+                writer.write('\n');
+                rows++;
+                if (result.isSafeToSend()) {
+                    safeToSend++;
+                }
+            }
+        }
+
+        private String quote(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(delimiter) < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        private void fail(IOException e) {
+            writeLock.lock();
+            try {
+                if (failure == null) {
+                    failure = e;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            token.cancel();
+        }
+
+        private Summary summary(Duration duration) {
+            writeLock.lock();
+            try {
+                return new Summary(rows, safeToSend, rows - safeToSend, duration);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    public static Builder builder(BouncerCheckService service) {
+        return new Builder(service);
+    }
+
+    public static final class Builder {
+        private final BouncerCheckService service;
+        private String emailColumnName;
+        private int emailColumnIndex;
+        private boolean header = true;
+        private char delimiter = ',';
+        private Charset charset = StandardCharsets.UTF_8;
+        private int chunkSize = BouncerCheckService.DEFAULT_BATCH_CHUNK_SIZE;
+        private int maxChunksInFlight = 4;
+        private int singleVerifyThreshold = 100;
+        private int singleVerifyConcurrency = 20;
+
+        private Builder(BouncerCheckService service) {
+            this.service = Objects.requireNonNull(service, "service cannot be null");
+        }
+
+        /**
+         * Takes the address from the column with this name in the header row (case-insensitive).
+         */
+        public Builder emailColumn(String emailColumnName) {
+            if (emailColumnName == null || emailColumnName.isBlank()) {
+                throw new IllegalArgumentException("emailColumnName cannot be blank");
+            }
+            this.emailColumnName = emailColumnName.trim();
+            return this;
+        }
+
+        /**
+         * Takes the address from the column with this zero-based index (default 0).
+         */
+        public Builder emailColumn(int emailColumnIndex) {
+            if (emailColumnIndex < 0) {
+                throw new IllegalArgumentException("emailColumnIndex must not be negative");
+            }
+            this.emailColumnIndex = emailColumnIndex;
+            this.emailColumnName = null;
+            return this;
+        }
+
+        /**
+         * Whether the first row is a header; it is copied to the output with the result columns appended (default true).
+         */
+        public Builder header(boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        /**
+         * Column delimiter of input and output (default ',').
+         */
+        public Builder delimiter(char delimiter) {
+            if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+                throw new IllegalArgumentException("delimiter must not be a quote or line break");
+            }
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /**
+         * Charset of input and output (default UTF-8).
+         */
+        public Builder charset(Charset charset) {
+            this.charset = Objects.requireNonNull(charset, "charset cannot be null");
+            return this;
+        }
+
+        /**
+         * Number of rows per batch job (default {@link BouncerCheckService#DEFAULT_BATCH_CHUNK_SIZE}).
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize must be positive");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of chunks being verified or waiting to be written at the same time; bounds the memory
+         * of a run (default 4).
+         */
+        public Builder maxChunksInFlight(int maxChunksInFlight) {
+            if (maxChunksInFlight <= 0) {
+                throw new IllegalArgumentException("maxChunksInFlight must be positive");
+            }
+            this.maxChunksInFlight = maxChunksInFlight;
+            return this;
+        }
+
+        /**
+         * Chunks with fewer rows are verified with parallel single calls instead of a batch job (default 100).
+         */
+        public Builder singleVerifyThreshold(int singleVerifyThreshold) {
+            if (singleVerifyThreshold < 0) {
+                throw new IllegalArgumentException("singleVerifyThreshold must not be negative");
+            }
+            this.singleVerifyThreshold = singleVerifyThreshold;
+            return this;
+        }
+
+        /**
+         * Maximum number of single verifications in flight per chunk (default 20).
+         */
+        public Builder singleVerifyConcurrency(int singleVerifyConcurrency) {
+            if (singleVerifyConcurrency <= 0) {
+                throw new IllegalArgumentException("singleVerifyConcurrency must be positive");
+            }
+            this.singleVerifyConcurrency = singleVerifyConcurrency;
+            return this;
+        }
+
+        public FileVerificationPipeline build() {
+            return new FileVerificationPipeline(this);
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package de.entwicklertraining.bouncer4j.pipeline;
+
+import de.entwicklertraining.bouncer4j.BouncerCheckConfig;
+import de.entwicklertraining.bouncer4j.BouncerCheckService;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.EmailCheckResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verifies a stream of addresses of any length with bounded memory, based on {@link java.util.concurrent.Flow}.
+ *
+ * <p>Addresses are pulled from the upstream publisher with backpressure and collected into chunks of
+ * {@code chunkSize}. Every chunk is verified as a batch job with
+ * {@link BouncerCheckService#checkBatchEmailsInOrder(List, BouncerCheckConfig, int, CancellationToken)}; chunks
+ * with fewer than {@code singleVerifyThreshold} addresses, typically the last one, are verified with parallel
+ * single calls instead. Up to {@code maxChunksInFlight} chunks are filled, verified or waiting to be emitted at
+ * the same time, so at most {@code maxChunksInFlight * chunkSize} addresses and results are held in memory,
+ * however long the stream is.
+ *
+ * <p>Every input address yields exactly one result, emitted as soon as its chunk is complete and the subscriber
+ * has requested it. By default chunks are emitted in the order they complete; with {@code preserveOrder} the
+ * results keep the order of the input. Duplicates are only merged within a chunk; configure a result cache
+ * on the service to avoid paying twice for duplicates across chunks.
+ *
+ * <p>Cancelling the subscription cancels the upstream subscription and aborts the chunks in flight;
+ * their batches are deleted. An upstream error is passed on at once, also aborting the chunks in flight.
+ *
+ * <pre>{@code
+ * VerificationPipeline pipeline = VerificationPipeline.builder(service).chunkSize(10_000).maxChunksInFlight(4).build();
+ * Flow.Publisher<EmailCheckResult> results = pipeline.verify(addressPublisher, config);
+ * results.subscribe(resultWriter);
+ * }</pre>
+ */
+public final class VerificationPipeline {
+
+    private static final Executor DEFAULT_EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("bouncer-pipeline-", 0).factory());
+
+    private final BouncerCheckService service;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int singleVerifyThreshold;
+    private final int singleVerifyConcurrency;
+    private final boolean preserveOrder;
+    private final Executor executor;
+
+    private VerificationPipeline(Builder builder) {
+        this.service = builder.service;
+        this.chunkSize = builder.chunkSize;
+        this.maxChunksInFlight = builder.maxChunksInFlight;
+        this.singleVerifyThreshold = builder.singleVerifyThreshold;
+        this.singleVerifyConcurrency = builder.singleVerifyConcurrency;
+        this.preserveOrder = builder.preserveOrder;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Creates a publisher of the check results of the given addresses. Every subscriber gets its own run:
+     * it subscribes to {@code emails} and verifies the addresses it receives.
+     *
+     * @param emails The addresses to check; must not emit null.
+     * @param config The configuration for security evaluation.
+     * @return A publisher emitting one check result per address.
+     */
+    public Flow.Publisher<EmailCheckResult> verify(Flow.Publisher<String> emails, BouncerCheckConfig config) {
+        Objects.requireNonNull(emails, "emails cannot be null");
+        Objects.requireNonNull(config, "config cannot be null");
+        return subscriber -> {
+            Objects.requireNonNull(subscriber, "subscriber cannot be null");
+            Run run = new Run(subscriber, config);
+            subscriber.onSubscribe(run);
+            emails.subscribe(run);
+        };
+    }
+
+    /**
+     * Verifies one chunk; never returns fewer results than addresses.
+     */
+    private List<EmailCheckResult> verifyChunk(List<String> chunk, BouncerCheckConfig config, CancellationToken token) {
+        if (chunk.size() < singleVerifyThreshold) {
+            return service.checkEmailsConcurrently(chunk, config, singleVerifyConcurrency, token);
+        }
+        return service.checkBatchEmailsInOrder(chunk, config, Integer.MAX_VALUE, token);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getMaxChunksInFlight() {
+        return maxChunksInFlight;
+    }
+
+    /**
+     * One subscription: the subscriber to the upstream addresses and the subscription of the downstream results.
+     * State is guarded by {@code lock}; signals to the downstream subscriber are only sent from {@link #drain()},
+     * which never runs on two threads at once.
+     */
+    private final class Run implements Flow.Subscriber<String>, Flow.Subscription {
+        private final Flow.Subscriber<? super EmailCheckResult> downstream;
+        private final BouncerCheckConfig config;
+        private final CancellationToken token = CancellationToken.create();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private Flow.Subscription upstream;
+        private List<String> filling = new ArrayList<>();
+        private long upstreamPending; // requested from upstream, not received yet
+        private int openChunks;       // dispatched, not completely emitted yet
+        private long nextSequence;
+        private long nextToEmit;
+        private final Map<Long, List<EmailCheckResult>> completed = new HashMap<>();
+        private final ArrayDeque<EmailCheckResult> ready = new ArrayDeque<>();
+        private final ArrayDeque<Integer> readyChunkSizes = new ArrayDeque<>();
+        private int emittedOfHeadChunk;
+        private long demand;
+        private boolean upstreamDone;
+        private Throwable error;
+        private boolean cancelled;
+        private boolean terminated;
+
+        private Run(Flow.Subscriber<? super EmailCheckResult> downstream, BouncerCheckConfig config) {
+            this.downstream = downstream;
+            this.config = config;
+        }
+
+        // --- Upstream ---
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Objects.requireNonNull(subscription, "subscription cannot be null");
+            long request;
+            lock.lock();
+            try {
+                if (upstream != null || cancelled) {
+                    subscription.cancel();
+                    return;
+                }
+                upstream = subscription;
+                request = upstreamRequestLocked();
+            } finally {
+                lock.unlock();
+            }
+            if (request > 0) {
+                subscription.request(request);
+            }
+        }
+
+        @Override
+        public void onNext(String email) {
+            Objects.requireNonNull(email, "Upstream emitted a null email");
+            List<String> chunk = null;
+            long request = 0;
+            lock.lock();
+            try {
+                if (cancelled || upstreamDone) {
+                    return;
+                }
+                upstreamPending--;
+                filling.add(email);
+                if (filling.size() >= chunkSize) {
+                    chunk = takeChunkLocked();
+                    request = upstreamRequestLocked();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (chunk != null) {
+                dispatch(chunk);
+            }
+            if (request > 0) {
+                upstream.request(request);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            lock.lock();
+            try {
+                if (upstreamDone) {
+                    return;
+                }
+                upstreamDone = true;
+                error = throwable;
+            } finally {
+                lock.unlock();
+            }
+            token.cancel();
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            List<String> chunk = null;
+            lock.lock();
+            try {
+                if (upstreamDone) {
+                    return;
+                }
+                upstreamDone = true;
+                if (!filling.isEmpty()) {
+                    chunk = takeChunkLocked();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (chunk != null) {
+                dispatch(chunk);
+            }
+            drain();
+        }
+
+        /**
+         * Must be called with the lock held.
+         *
+         * @return How many more addresses to request from upstream to fill the current chunk, if a chunk slot is free.
+         */
+        private long upstreamRequestLocked() {
+            if (upstream == null || upstreamDone || cancelled || openChunks >= maxChunksInFlight) {
+                return 0;
+            }
+            long missing = chunkSize - filling.size() - upstreamPending;
+            if (missing <= 0) {
+                return 0;
+            }
+            upstreamPending += missing;
+            return missing;
+        }
+
+        /**
+         * Must be called with the lock held.
+         */
+        private List<String> takeChunkLocked() {
+            List<String> chunk = filling;
+            filling = new ArrayList<>();
+            openChunks++;
+            return chunk;
+        }
+
+        private void dispatch(List<String> chunk) {
+            long sequence;
+            lock.lock();
+            try {
+                sequence = nextSequence++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                executor.execute(() -> complete(sequence, chunk));
+            } catch (RuntimeException e) { // e.g. the executor rejected the task
+                fail(e);
+            }
+        }
+
+        private void complete(long sequence, List<String> chunk) {
+            List<EmailCheckResult> results;
+            try {
+                results = verifyChunk(chunk, config, token);
+            } catch (RuntimeException | Error e) {
+                fail(e);
+                return;
+            }
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                completed.put(sequence, results);
+                // Hand over completed chunks; with preserveOrder only in input order
+                while (!completed.isEmpty()) {
+                    List<EmailCheckResult> next = completed.remove(preserveOrder ? nextToEmit : sequence);
+                    if (next == null) {
+                        break;
+                    }
+                    nextToEmit++;
+                    if (next.isEmpty()) {
+                        openChunks--;
+                    } else {
+                        ready.addAll(next);
+                        readyChunkSizes.addLast(next.size());
+                    }
+                    if (!preserveOrder) {
+                        break;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }
+
+        private void fail(Throwable throwable) {
+            lock.lock();
+            try {
+                if (error == null) {
+                    error = throwable;
+                }
+            } finally {
+                lock.unlock();
+            }
+            cancelUpstreamAndChunks();
+            drain();
+        }
+
+        // --- Downstream ---
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested " + n + " results; the number must be positive"));
+                return;
+            }
+            lock.lock();
+            try {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                filling = new ArrayList<>();
+                completed.clear();
+                ready.clear();
+                readyChunkSizes.clear();
+            } finally {
+                lock.unlock();
+            }
+            cancelUpstreamAndChunks();
+        }
+
+        private void cancelUpstreamAndChunks() {
+            Flow.Subscription subscription;
+            lock.lock();
+            try {
+                subscription = upstream;
+                upstreamDone = true;
+            } finally {
+                lock.unlock();
+            }
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            token.cancel(); // Aborts the requests of chunks in flight and deletes their batches
+        }
+
+        /**
+         * Emits ready results as far as the demand allows, then the terminal signal once everything is emitted.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (true) {
+                    EmailCheckResult next = null;
+                    Throwable failure = null;
+                    boolean complete = false;
+                    long request = 0;
+                    lock.lock();
+                    try {
+                        if (cancelled || terminated) {
+                            break;
+                        }
+                        if (error != null) {
+                            terminated = true;
+                            failure = error;
+                        } else if (demand > 0 && !ready.isEmpty()) {
+                            next = ready.pollFirst();
+                            demand--;
+                            if (++emittedOfHeadChunk == readyChunkSizes.peekFirst()) {
+                                // The chunk is fully emitted; its slot may be refilled
+                                readyChunkSizes.pollFirst();
+                                emittedOfHeadChunk = 0;
+                                openChunks--;
+                                request = upstreamRequestLocked();
+                            }
+                        } else if (ready.isEmpty() && upstreamDone && openChunks == 0 && filling.isEmpty()) {
+                            terminated = true;
+                            complete = true;
+                        } else {
+                            break;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (failure != null) {
+                        downstream.onError(failure);
+                        break;
+                    }
+                    if (complete) {
+                        downstream.onComplete();
+                        break;
+                    }
+                    downstream.onNext(next);
+                    if (request > 0) {
+                        upstream.request(request);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    public static Builder builder(BouncerCheckService service) {
+        return new Builder(service);
+    }
+
+    public static final class Builder {
+        private final BouncerCheckService service;
+        private int chunkSize = BouncerCheckService.DEFAULT_BATCH_CHUNK_SIZE;
+        private int maxChunksInFlight = 4;
+        private int singleVerifyThreshold = 100;
+        private int singleVerifyConcurrency = 20;
+        private boolean preserveOrder;
+        private Executor executor = DEFAULT_EXECUTOR;
+
+        private Builder(BouncerCheckService service) {
+            this.service = Objects.requireNonNull(service, "service cannot be null");
+        }
+
+        /**
+         * Number of addresses per batch job (default {@link BouncerCheckService#DEFAULT_BATCH_CHUNK_SIZE}).
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize must be positive");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of chunks being filled, verified or emitted at the same time; bounds the memory
+         * of the pipeline (default 4).
+         */
+        public Builder maxChunksInFlight(int maxChunksInFlight) {
+            if (maxChunksInFlight <= 0) {
+                throw new IllegalArgumentException("maxChunksInFlight must be positive");
+            }
+            this.maxChunksInFlight = maxChunksInFlight;
+            return this;
+        }
+
+        /**
+         * Chunks with fewer addresses are verified with parallel single calls instead of a batch job (default 100).
+         */
+        public Builder singleVerifyThreshold(int singleVerifyThreshold) {
+            if (singleVerifyThreshold < 0) {
+                throw new IllegalArgumentException("singleVerifyThreshold must not be negative");
+            }
+            this.singleVerifyThreshold = singleVerifyThreshold;
+            return this;
+        }
+
+        /**
+         * Maximum number of single verifications in flight per chunk (default 20).
+         */
+        public Builder singleVerifyConcurrency(int singleVerifyConcurrency) {
+            if (singleVerifyConcurrency <= 0) {
+                throw new IllegalArgumentException("singleVerifyConcurrency must be positive");
+            }
+            this.singleVerifyConcurrency = singleVerifyConcurrency;
+            return this;
+        }
+
+        /**
+         * Emits the results in input order instead of chunk completion order (default false). A slow chunk
+         * then holds back the chunks after it.
+         */
+        public Builder preserveOrder(boolean preserveOrder) {
+            this.preserveOrder = preserveOrder;
+            return this;
+        }
+
+        /**
+         * Executor on which the chunks are verified; every chunk occupies one thread while it runs
+         * (default: a virtual thread per chunk).
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+            return this;
+        }
+
+        public VerificationPipeline build() {
+            return new VerificationPipeline(this);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package de.entwicklertraining.bouncer4j.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of requests in flight and adapts the limit to the capacity of the server
+ * (additive increase, multiplicative decrease, as in TCP congestion control).
+ *
+ * <p>Every successful request raises the limit by {@code increase / limit}, i.e. by roughly
+ * {@code increase} per fully used window. A request rejected with HTTP 429 or 503 lowers the limit to
+ * {@code limit * backoffRatio}, once per window: rejections of requests admitted before the last decrease
+ * belong to the same overload and are ignored, so a burst of concurrent rejections halves the limit only
+ * once. Other failures leave the limit unchanged. The limit always stays within {@code [minLimit, maxLimit]}.
+ *
+ * <pre>{@code
+ * client.setConcurrencyLimiter(AdaptiveConcurrencyLimiter.builder().initialLimit(10).maxLimit(200).build());
+ * }</pre>
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /**
+     * How a request that held a slot ended.
+     */
+    public enum Outcome {
+        /** The request succeeded; the limit grows. */
+        SUCCESS,
+        /** The server signalled overload (HTTP 429/503); the limit shrinks. */
+        DROPPED,
+        /** The request failed for an unrelated reason; the limit is unchanged. */
+        IGNORED
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double increase;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long decreases;
+
+    private AdaptiveConcurrencyLimiter(Builder builder) {
+        if (builder.minLimit > builder.maxLimit) {
+            throw new IllegalArgumentException("minLimit must not be greater than maxLimit");
+        }
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.increase = builder.increase;
+        this.backoffRatio = builder.backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, builder.initialLimit));
+    }
+
+    /**
+     * Waits until a slot is free and takes it.
+     *
+     * @return The slot; it must be released exactly once.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Permit acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                slotFreed.await();
+            }
+            inFlight++;
+            return new Permit(decreases);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a slot if one becomes free within the given time.
+     *
+     * @return The slot, or null if none became free in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Permit tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                remainingNanos = slotFreed.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return new Permit(decreases);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        lock.lock();
+        try {
+            if (permit.released) {
+                throw new IllegalStateException("Permit was already released");
+            }
+            permit.released = true;
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> limit = Math.min(maxLimit, limit + increase / limit);
+                case DROPPED -> {
+                    // Requests admitted before the last decrease saw the same overload
+                    if (permit.decreasesAtAdmission == decreases) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                        decreases++;
+                    }
+                }
+                case IGNORED -> { }
+            }
+            // A grown limit may admit several waiters at once
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The current number of requests that may be in flight.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of requests currently in flight.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A slot taken from the limiter.
+     */
+    public final class Permit {
+        private final long decreasesAtAdmission;
+        private boolean released; // guarded by lock
+
+        private Permit(long decreasesAtAdmission) {
+            this.decreasesAtAdmission = decreasesAtAdmission;
+        }
+
+        /**
+         * Releases the slot and adapts the limit to the outcome of the request.
+         *
+         * @param outcome How the request ended.
+         * @throws IllegalStateException if the permit was already released.
+         */
+        public void release(Outcome outcome) {
+            AdaptiveConcurrencyLimiter.this.release(this, outcome);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double increase = 1.0;
+        private double backoffRatio = 0.5;
+
+        /**
+         * Limit to start with (default 10).
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Lower bound of the limit (default 1).
+         */
+        public Builder minLimit(int minLimit) {
+            if (minLimit <= 0) {
+                throw new IllegalArgumentException("minLimit must be positive");
+            }
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Upper bound of the limit (default 200).
+         */
+        public Builder maxLimit(int maxLimit) {
+            if (maxLimit <= 0) {
+                throw new IllegalArgumentException("maxLimit must be positive");
+            }
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Additive increase per fully used window (default 1.0).
+         */
+        public Builder increase(double increase) {
+            if (!(increase > 0)) {
+                throw new IllegalArgumentException("increase must be positive");
+            }
+            this.increase = increase;
+            return this;
+        }
+
+        /**
+         * Factor applied to the limit on overload, between 0 and 1 exclusive (default 0.5).
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (!(backoffRatio > 0 && backoffRatio < 1)) {
+                throw new IllegalArgumentException("backoffRatio must be between 0 and 1 (exclusive)");
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        public AdaptiveConcurrencyLimiter build() {
+            return new AdaptiveConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package de.entwicklertraining.bouncer4j.resilience;
+
+import de.entwicklertraining.api.base.ApiClient;
+import de.entwicklertraining.bouncer4j.exceptions.CircuitOpenException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops sending requests to an endpoint that is failing or too slow, so callers fail in microseconds
+ * with a {@link CircuitOpenException} instead of piling up behind timeouts and retries.
+ *
+ * <ul>
+ *   <li><b>Closed:</b> requests pass. The outcomes of the last {@code windowSize} calls are recorded; once at
+ *       least {@code minimumCalls} were recorded and the failure rate or the slow-call rate reaches its
+ *       threshold, the circuit opens.</li>
+ *   <li><b>Open:</b> requests are rejected for {@code openDuration}.</li>
+ *   <li><b>Half-open:</b> {@code halfOpenCalls} test requests pass. If all of them succeed in time, the circuit
+ *       closes; otherwise it opens again.</li>
+ * </ul>
+ * Server errors, rate limiting (HTTP 429/503), I/O errors and unusable responses count as failures;
+ * client errors (HTTP 400, 401, 402, 403, 404) do not.
+ *
+ * <pre>{@code
+ * client.setCircuitBreaker(EndpointFamily.VERIFY, CircuitBreaker.builder("verify")
+ *         .failureRateThreshold(0.5)
+ *         .slowCallDuration(Duration.ofSeconds(15))
+ *         .openDuration(Duration.ofSeconds(30))
+ *         .build());
+ * }</pre>
+ */
+public final class CircuitBreaker {
+
+    /**
+     * State of a circuit breaker.
+     */
+    public enum State {
+        /** Requests pass and their outcomes are recorded. */
+        CLOSED,
+        /** Requests are rejected. */
+        OPEN,
+        /** A few test requests pass to find out whether the endpoint has recovered. */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    private CircuitBreaker(Builder builder) {
+        if (builder.minimumCalls > builder.windowSize) {
+            throw new IllegalArgumentException("minimumCalls must not be greater than windowSize");
+        }
+        this.name = builder.name;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallNanos = builder.slowCallDuration.toNanos();
+        this.minimumCalls = builder.minimumCalls;
+        this.openNanos = builder.openDuration.toNanos();
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.failed = new boolean[builder.windowSize];
+        this.slow = new boolean[builder.windowSize];
+    }
+
+    /**
+     * Lets a request pass or rejects it. Every permitted request must be reported with
+     * {@link #onResult(long, Throwable)} or, if it was not sent after all, {@link #releasePermission()}.
+     *
+     * @throws CircuitOpenException if the circuit is open or all half-open test requests are taken.
+     */
+    public void acquirePermission() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (state == State.OPEN && now - openedAtNanos >= openNanos) {
+                transitionTo(State.HALF_OPEN, "testing with " + halfOpenCalls + " requests");
+            }
+            if (state == State.CLOSED) {
+                return;
+            }
+            if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+                halfOpenPermits++;
+                return;
+            }
+            rejected.increment();
+            Duration retryAfter = Duration.ofNanos(state == State.OPEN ? Math.max(0, openedAtNanos + openNanos - now) : 0);
+            throw new CircuitOpenException(name, retryAfter, "Circuit breaker '" + name + "' is " + state
+                    + (state == State.OPEN ? "; retry in " + retryAfter.toMillis() + " ms" : "; test requests are in flight"));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permission of a request that was not sent, e.g. because it timed out in a client-side queue.
+     */
+    public void releasePermission() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && halfOpenPermits > halfOpenSuccesses) {
+                halfOpenPermits--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted request.
+     *
+     * @param durationNanos How long the call took.
+     * @param error         The exception of the call, or null if it succeeded.
+     */
+    public void onResult(long durationNanos, Throwable error) {
+        boolean isFailure = error != null && isFailure(error);
+        boolean isSlow = durationNanos >= slowCallNanos;
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    record(isFailure, isSlow);
+                    if (recorded >= minimumCalls) {
+                        double failureRate = (double) failures / recorded;
+                        double slowCallRate = (double) slowCalls / recorded;
+                        if (failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold) {
+                            open(String.format("failure rate %.0f%%, slow-call rate %.0f%% over %d calls",
+                                    failureRate * 100, slowCallRate * 100, recorded));
+                        }
+                    }
+                }
+                case HALF_OPEN -> {
+                    if (isFailure || isSlow) {
+                        open("test request " + (isFailure ? "failed" : "was slow"));
+                    } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                        transitionTo(State.CLOSED, "all test requests succeeded");
+                    }
+                }
+                case OPEN -> {
+                    // Late result of a call started before the circuit opened
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the exception indicates that the endpoint is degraded rather than the request being wrong.
+     */
+    private static boolean isFailure(Throwable error) {
+        return !(error instanceof ApiClient.HTTP_400_RequestRejectedException
+                || error instanceof ApiClient.HTTP_401_AuthorizationException
+                || error instanceof ApiClient.HTTP_402_PaymentRequiredException
+                || error instanceof ApiClient.HTTP_403_PermissionDeniedException
+                || error instanceof ApiClient.HTTP_404_NotFoundException);
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        failures += isFailure ? 1 : 0;
+        slowCalls += isSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private void open(String reason) {
+        openedAtNanos = System.nanoTime();
+        openings.increment();
+        transitionTo(State.OPEN, reason);
+    }
+
+    private void transitionTo(State newState, String reason) {
+        System.err.println("Circuit breaker '" + name + "': " + state + " -> " + newState + " (" + reason + ")");
+        state = newState;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The current state; an open circuit whose open duration has passed is reported as open
+     *         until the next request moves it to half-open.
+     */
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of requests rejected without being sent.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return How often the circuit has opened.
+     */
+    public long getOpenCount() {
+        return openings.sum();
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public static final class Builder {
+        private final String name;
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.8;
+        private Duration slowCallDuration = Duration.ofSeconds(30);
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+
+        private Builder(String name) {
+            this.name = Objects.requireNonNull(name, "name cannot be null");
+        }
+
+        /**
+         * Share of failed calls in the window at which the circuit opens (default 0.5).
+         */
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = requireRate(failureRateThreshold, "failureRateThreshold");
+            return this;
+        }
+
+        /**
+         * Share of slow calls in the window at which the circuit opens (default 0.8).
+         */
+        public Builder slowCallRateThreshold(double slowCallRateThreshold) {
+            this.slowCallRateThreshold = requireRate(slowCallRateThreshold, "slowCallRateThreshold");
+            return this;
+        }
+
+        /**
+         * Calls taking at least this long count as slow (default 30 seconds).
+         */
+        public Builder slowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = requirePositive(slowCallDuration, "slowCallDuration");
+            return this;
+        }
+
+        /**
+         * Number of recent calls the rates are computed from (default 50).
+         */
+        public Builder windowSize(int windowSize) {
+            if (windowSize <= 0) {
+                throw new IllegalArgumentException("windowSize must be positive");
+            }
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Number of recorded calls needed before the circuit can open (default 20).
+         */
+        public Builder minimumCalls(int minimumCalls) {
+            if (minimumCalls <= 0) {
+                throw new IllegalArgumentException("minimumCalls must be positive");
+            }
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * How long requests are rejected before test requests are let through (default 30 seconds).
+         */
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = requirePositive(openDuration, "openDuration");
+            return this;
+        }
+
+        /**
+         * Number of test requests in the half-open state (default 3).
+         */
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            if (halfOpenCalls <= 0) {
+                throw new IllegalArgumentException("halfOpenCalls must be positive");
+            }
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        private static double requireRate(double rate, String name) {
+            if (!(rate > 0 && rate <= 1)) {
+                throw new IllegalArgumentException(name + " must be greater than 0 and at most 1");
+            }
+            return rate;
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            Objects.requireNonNull(duration, name + " cannot be null");
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package de.entwicklertraining.bouncer4j.resilience;
+
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.exceptions.BouncerException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cuts the tail latency of single verifications by sending a second ("hedged") request when the first
+ * one takes unusually long; whichever answers first wins.
+ *
+ * <p>The hedge is sent once the first request has run longer than the configured percentile of recent
+ * latencies (never earlier than {@code minDelay}). It asks Bouncer for a shorter verification
+ * {@code timeout}, so it answers in time even if the mail server is slow. As every hedge costs a credit,
+ * at most {@code budgetPerMinute} hedges are sent per minute; beyond that, calls simply wait for the first request.
+ *
+ * <pre>{@code
+ * client.setHedgingPolicy(HedgingPolicy.builder()
+ *         .percentile(0.95)
+ *         .hedgeTimeoutSeconds(5)
+ *         .budgetPerMinute(20)
+ *         .build());
+ * }</pre>
+ */
+public final class HedgingPolicy {
+
+    private static final long BUDGET_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    /** The percentile is recomputed after this many new samples. */
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final double percentile;
+    private final Duration minDelay;
+    private final int hedgeTimeoutSeconds;
+    private final int budgetPerMinute;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] samples;
+    private int sampleCount;
+    private int nextSample;
+    private int samplesSinceRecompute;
+    private long delayNanos;
+    private long budgetWindowStart = System.nanoTime();
+    private int hedgesInWindow;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    private HedgingPolicy(Builder builder) {
+        this.percentile = builder.percentile;
+        this.minDelay = builder.minDelay;
+        this.hedgeTimeoutSeconds = builder.hedgeTimeoutSeconds;
+        this.budgetPerMinute = builder.budgetPerMinute;
+        this.samples = new long[builder.sampleSize];
+        this.delayNanos = builder.minDelay.toNanos();
+    }
+
+    /**
+     * Runs the primary call and, if it is slow and the budget allows, the hedge call; returns the first
+     * successful result. If both fail, the exception of the primary call is thrown. Each call gets its own
+     * child of {@code token}; once one call has answered, the other one is cancelled, so it gives back its
+     * client-side permits and, if it was not sent yet, its credit.
+     *
+     * @param primary  The original request, sent with the given token.
+     * @param hedge    The same request with a shorter verification timeout, sent with the given token.
+     * @param token    Cancels both calls, e.g. at a deadline.
+     * @param executor Runs both calls.
+     * @return The result of the call that answered first.
+     */
+    public <T> T execute(Function<CancellationToken, T> primary, Function<CancellationToken, T> hedge,
+                         CancellationToken token, Executor executor) {
+        Objects.requireNonNull(primary, "primary cannot be null");
+        Objects.requireNonNull(hedge, "hedge cannot be null");
+        Objects.requireNonNull(token, "token cannot be null");
+        Objects.requireNonNull(executor, "executor cannot be null");
+        calls.increment();
+        long start = System.nanoTime();
+        CancellationToken primaryToken = token.child();
+        CancellationToken hedgeToken = token.child();
+        try {
+            CompletableFuture<T> first = CompletableFuture.supplyAsync(() -> primary.apply(primaryToken), executor);
+            // Only latencies of primary calls are sampled, so hedging does not skew its own trigger
+            first.whenComplete((result, error) -> {
+                if (error == null) {
+                    record(System.nanoTime() - start);
+                }
+            });
+            try {
+                return first.get(currentDelayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!tryTakeBudget()) {
+                    return first.get();
+                }
+            }
+            hedges.increment();
+            CompletableFuture<T> second = CompletableFuture.supplyAsync(() -> hedge.apply(hedgeToken), executor);
+            CompletableFuture<T> winner = new CompletableFuture<>();
+            first.whenComplete((result, error) -> {
+                if (error == null) {
+                    if (winner.complete(result)) {
+                        hedgeToken.cancel();
+                    }
+                } else if (second.isCompletedExceptionally()) {
+                    winner.completeExceptionally(error);
+                }
+            });
+            second.whenComplete((result, error) -> {
+                if (error == null) {
+                    if (winner.complete(result)) {
+                        hedgeWins.increment();
+                        primaryToken.cancel();
+                    }
+                } else if (first.isCompletedExceptionally()) {
+                    first.whenComplete((ignored, firstError) -> winner.completeExceptionally(firstError));
+                }
+            });
+            return winner.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new BouncerException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BouncerException("Interrupted while waiting for a hedged request", e);
+        } finally {
+            // Aborts a call still running (e.g. after an interrupt) and unregisters both children from the token
+            primaryToken.cancel();
+            hedgeToken.cancel();
+        }
+    }
+
+    private long currentDelayNanos() {
+        lock.lock();
+        try {
+            return delayNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(long latencyNanos) {
+        lock.lock();
+        try {
+            samples[nextSample] = latencyNanos;
+            nextSample = (nextSample + 1) % samples.length;
+            sampleCount = Math.min(sampleCount + 1, samples.length);
+            if (++samplesSinceRecompute >= RECOMPUTE_INTERVAL) {
+                samplesSinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(sorted);
+                long value = sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+                delayNanos = Math.max(minDelay.toNanos(), value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryTakeBudget() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now - budgetWindowStart >= BUDGET_WINDOW_NANOS) {
+                budgetWindowStart = now;
+                hedgesInWindow = 0;
+            }
+            if (hedgesInWindow >= budgetPerMinute) {
+                budgetExhausted.increment();
+                return false;
+            }
+            hedgesInWindow++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The verification timeout in seconds requested by hedges.
+     */
+    public int getHedgeTimeoutSeconds() {
+        return hedgeTimeoutSeconds;
+    }
+
+    /**
+     * @return How long a call currently runs before it is hedged.
+     */
+    public Duration getCurrentDelay() {
+        return Duration.ofNanos(currentDelayNanos());
+    }
+
+    /**
+     * @return A snapshot of the hedging statistics since creation.
+     */
+    public Stats getStats() {
+        return new Stats(calls.sum(), hedges.sum(), hedgeWins.sum(), budgetExhausted.sum());
+    }
+
+    /**
+     * Hedging statistics.
+     *
+     * @param calls           Calls that ran through the policy.
+     * @param hedges          Hedged requests sent.
+     * @param hedgeWins       Calls answered by the hedge.
+     * @param budgetExhausted Slow calls that were not hedged because the budget was used up.
+     */
+    public record Stats(long calls, long hedges, long hedgeWins, long budgetExhausted) {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(500);
+        private int hedgeTimeoutSeconds = 5;
+        private int budgetPerMinute = 10;
+        private int sampleSize = 256;
+
+        /**
+         * Latency percentile after which a call is hedged (default 0.95).
+         */
+        public Builder percentile(double percentile) {
+            if (!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("percentile must be between 0 and 1");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Calls are never hedged earlier than this, also while there are no latency samples yet (default 500 ms).
+         */
+        public Builder minDelay(Duration minDelay) {
+            Objects.requireNonNull(minDelay, "minDelay cannot be null");
+            if (minDelay.isNegative() || minDelay.isZero()) {
+                throw new IllegalArgumentException("minDelay must be positive");
+            }
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Verification timeout in seconds requested by hedges (default 5).
+         */
+        public Builder hedgeTimeoutSeconds(int hedgeTimeoutSeconds) {
+            if (hedgeTimeoutSeconds <= 0) {
+                throw new IllegalArgumentException("hedgeTimeoutSeconds must be positive");
+            }
+            this.hedgeTimeoutSeconds = hedgeTimeoutSeconds;
+            return this;
+        }
+
+        /**
+         * Maximum number of hedges per minute, i.e. extra credits spent on hedging (default 10).
+         */
+        public Builder budgetPerMinute(int budgetPerMinute) {
+            if (budgetPerMinute < 0) {
+                throw new IllegalArgumentException("budgetPerMinute must not be negative");
+            }
+            this.budgetPerMinute = budgetPerMinute;
+            return this;
+        }
+
+        /**
+         * Number of recent latencies the percentile is computed from (default 256).
+         */
+        public Builder sampleSize(int sampleSize) {
+            if (sampleSize <= 0) {
+                throw new IllegalArgumentException("sampleSize must be positive");
+            }
+            this.sampleSize = sampleSize;
+            return this;
+        }
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package de.entwicklertraining.bouncer4j.resilience;
+
+import de.entwicklertraining.bouncer4j.TrafficClass;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares the request budget of a client between {@link TrafficClass#INTERACTIVE interactive} and
+ * {@link TrafficClass#BULK bulk} traffic, so list cleaning cannot starve signup-form checks.
+ *
+ * <ul>
+ *   <li>At most {@code maxConcurrency} requests are in flight. {@code reservedInteractive} of these slots are
+ *       never given to bulk requests, so an interactive request finds a free slot even under full bulk load.</li>
+ *   <li>When requests of both classes are waiting, free slots are handed out by weighted fair queueing:
+ *       with weights 4:1, interactive requests get four slots for every bulk slot.</li>
+ *   <li>Bulk requests leave {@code interactiveRateShare} (default 20%) of the rate limit of each endpoint family
+ *       free for interactive requests, so these never queue behind bulk requests in the shared rate limiter.
+ *       Alternatively, {@code bulkRate} sets an explicit rate for bulk requests. Without a rate limiter for the
+ *       endpoint family and without {@code bulkRate}, only concurrency slots are reserved, not rate.</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * client.setRequestScheduler(RequestScheduler.builder()
+ *         .maxConcurrency(50)
+ *         .reservedInteractive(10)
+ *         .bulkRate(TokenBucketRateLimiter.of(15, 5))
+ *         .build());
+ * }</pre>
+ */
+public final class RequestScheduler {
+
+    private final int maxConcurrency;
+    private final int reservedInteractive;
+    private final Map<TrafficClass, Integer> weights;
+    private final TokenBucketRateLimiter bulkRateLimiter;
+    private final double interactiveRateShare;
+    /** Bulk limits derived from the rate limiters of the endpoint families, keyed by family limiter. */
+    private final Map<TokenBucketRateLimiter, TokenBucketRateLimiter> derivedBulkLimiters = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<TrafficClass, ArrayDeque<Waiter>> queues = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Double> virtualFinish = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, Integer> inFlight = new EnumMap<>(TrafficClass.class);
+    private double virtualTime;
+
+    private final Map<TrafficClass, LongAdder> requests = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, LongAdder> waitNanos = new EnumMap<>(TrafficClass.class);
+
+    private final class Waiter {
+        private final TrafficClass trafficClass;
+        private final Condition granted = lock.newCondition();
+        private boolean admitted;
+
+        private Waiter(TrafficClass trafficClass) {
+            this.trafficClass = trafficClass;
+        }
+    }
+
+    private RequestScheduler(Builder builder) {
+        if (builder.reservedInteractive >= builder.maxConcurrency) {
+            throw new IllegalArgumentException("reservedInteractive must be less than maxConcurrency");
+        }
+        this.maxConcurrency = builder.maxConcurrency;
+        this.reservedInteractive = builder.reservedInteractive;
+        this.weights = new EnumMap<>(builder.weights);
+        this.bulkRateLimiter = builder.bulkRateLimiter;
+        this.interactiveRateShare = builder.interactiveRateShare;
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            queues.put(trafficClass, new ArrayDeque<>());
+            virtualFinish.put(trafficClass, 0.0);
+            inFlight.put(trafficClass, 0);
+            requests.put(trafficClass, new LongAdder());
+            waitNanos.put(trafficClass, new LongAdder());
+        }
+    }
+
+    /**
+     * Waits until the rate share of the class allows another request. Call before {@link #acquire(TrafficClass)},
+     * so no slot is held while waiting for the rate.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void awaitRate(TrafficClass trafficClass) throws InterruptedException {
+        awaitRate(trafficClass, null);
+    }
+
+    /**
+     * Waits until the rate share of the class allows another request; call it before taking a token from the
+     * rate limiter of the endpoint family. Without {@code bulkRate}, bulk requests are limited to the family rate
+     * minus the interactive share, so the family limiter always has tokens left for interactive requests.
+     *
+     * @param familyLimiter The rate limiter of the endpoint family of the request, or null if it has none.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void awaitRate(TrafficClass trafficClass, TokenBucketRateLimiter familyLimiter) throws InterruptedException {
+        if (trafficClass != TrafficClass.BULK) {
+            return;
+        }
+        TokenBucketRateLimiter limiter = bulkRateLimiter;
+        if (limiter == null && familyLimiter != null && interactiveRateShare > 0) {
+            limiter = derivedBulkLimiters.computeIfAbsent(familyLimiter, family -> TokenBucketRateLimiter.of(
+                    family.getPermitsPerSecond() * (1 - interactiveRateShare),
+                    Math.max(1, (int) (family.getBurst() * (1 - interactiveRateShare)))));
+        }
+        if (limiter != null) {
+            limiter.acquire();
+        }
+    }
+
+    /**
+     * Waits for a slot of the class. Every acquired slot must be released exactly once.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void acquire(TrafficClass trafficClass) throws InterruptedException {
+        Objects.requireNonNull(trafficClass, "trafficClass cannot be null");
+        long start = System.nanoTime();
+        lock.lockInterruptibly();
+        try {
+            Waiter waiter = new Waiter(trafficClass);
+            ArrayDeque<Waiter> queue = queues.get(trafficClass);
+            if (queue.isEmpty()) {
+                // A class that was idle starts at the current virtual time instead of catching up on its share
+                virtualFinish.put(trafficClass, Math.max(virtualFinish.get(trafficClass), virtualTime));
+            }
+            queue.addLast(waiter);
+            grantSlots();
+            try {
+                while (!waiter.admitted) {
+                    waiter.granted.await();
+                }
+            } catch (InterruptedException e) {
+                if (waiter.admitted) {
+                    releaseLocked(trafficClass);
+                } else {
+                    queue.remove(waiter);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+        requests.get(trafficClass).increment();
+        waitNanos.get(trafficClass).add(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns a slot taken by {@link #acquire(TrafficClass)}.
+     */
+    public void release(TrafficClass trafficClass) {
+        Objects.requireNonNull(trafficClass, "trafficClass cannot be null");
+        lock.lock();
+        try {
+            releaseLocked(trafficClass);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(TrafficClass trafficClass) {
+        inFlight.merge(trafficClass, -1, Integer::sum);
+        grantSlots();
+    }
+
+    /**
+     * Hands free slots to the waiting requests: among the classes that may take a slot, the one with the
+     * smallest virtual finish time goes first. Must be called with the lock held.
+     */
+    private void grantSlots() {
+        while (true) {
+            TrafficClass next = null;
+            for (TrafficClass candidate : TrafficClass.values()) {
+                if (queues.get(candidate).isEmpty() || !hasSlotFor(candidate)) {
+                    continue;
+                }
+                if (next == null || virtualFinish.get(candidate) < virtualFinish.get(next)) {
+                    next = candidate;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Waiter waiter = queues.get(next).removeFirst();
+            double finish = virtualFinish.get(next) + 1.0 / weights.get(next);
+            virtualFinish.put(next, finish);
+            virtualTime = finish - 1.0 / weights.get(next);
+            inFlight.merge(next, 1, Integer::sum);
+            waiter.admitted = true;
+            waiter.granted.signal();
+        }
+    }
+
+    private boolean hasSlotFor(TrafficClass trafficClass) {
+        int total = 0;
+        for (int count : inFlight.values()) {
+            total += count;
+        }
+        if (total >= maxConcurrency) {
+            return false;
+        }
+        return trafficClass == TrafficClass.INTERACTIVE || inFlight.get(TrafficClass.BULK) < maxConcurrency - reservedInteractive;
+    }
+
+    /**
+     * @return The number of requests of the class currently in flight.
+     */
+    public int getInFlight(TrafficClass trafficClass) {
+        lock.lock();
+        try {
+            return inFlight.get(trafficClass);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of requests of the class waiting for a slot.
+     */
+    public int getQueued(TrafficClass trafficClass) {
+        lock.lock();
+        try {
+            return queues.get(trafficClass).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getReservedInteractive() {
+        return reservedInteractive;
+    }
+
+    public double getInteractiveRateShare() {
+        return interactiveRateShare;
+    }
+
+    /**
+     * @return A snapshot of the admission statistics of the class since creation.
+     */
+    public Stats getStats(TrafficClass trafficClass) {
+        return new Stats(requests.get(trafficClass).sum(), Duration.ofNanos(waitNanos.get(trafficClass).sum()));
+    }
+
+    /**
+     * Admission statistics of one traffic class.
+     *
+     * @param requests  Number of slots handed out.
+     * @param totalWait Sum of all waiting times for a slot.
+     */
+    public record Stats(long requests, Duration totalWait) {
+
+        /**
+         * @return The average waiting time for a slot.
+         */
+        public Duration averageWait() {
+            return requests == 0 ? Duration.ZERO : totalWait.dividedBy(requests);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int maxConcurrency = 50;
+        private int reservedInteractive = 5;
+        private final Map<TrafficClass, Integer> weights = new EnumMap<>(Map.of(
+                TrafficClass.INTERACTIVE, 4,
+                TrafficClass.BULK, 1));
+        private TokenBucketRateLimiter bulkRateLimiter;
+        private double interactiveRateShare = 0.2;
+
+        /**
+         * Maximum number of requests in flight over both classes (default 50).
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("maxConcurrency must be positive");
+            }
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Slots that only interactive requests may use (default 5). This reserves concurrency only; the rate is
+         * reserved by {@link #interactiveRateShare(double)} or {@link #bulkRate(TokenBucketRateLimiter)}.
+         */
+        public Builder reservedInteractive(int reservedInteractive) {
+            if (reservedInteractive < 0) {
+                throw new IllegalArgumentException("reservedInteractive must not be negative");
+            }
+            this.reservedInteractive = reservedInteractive;
+            return this;
+        }
+
+        /**
+         * Share of the free slots the class receives while both classes are waiting (defaults: interactive 4, bulk 1).
+         */
+        public Builder weight(TrafficClass trafficClass, int weight) {
+            Objects.requireNonNull(trafficClass, "trafficClass cannot be null");
+            if (weight <= 0) {
+                throw new IllegalArgumentException("weight must be positive");
+            }
+            weights.put(trafficClass, weight);
+            return this;
+        }
+
+        /**
+         * Share of the rate limit of each endpoint family that bulk requests leave free for interactive ones
+         * (default 0.2; 0 lets bulk requests use the whole rate). Has no effect for endpoint families without
+         * a rate limiter, and is replaced by {@link #bulkRate(TokenBucketRateLimiter)} if that is set.
+         */
+        public Builder interactiveRateShare(double interactiveRateShare) {
+            if (!(interactiveRateShare >= 0 && interactiveRateShare < 1)) {
+                throw new IllegalArgumentException("interactiveRateShare must be at least 0 and less than 1");
+            }
+            this.interactiveRateShare = interactiveRateShare;
+            return this;
+        }
+
+        /**
+         * Limits the rate of bulk requests; choose it below the rate limit of the account, so that the
+         * difference stays free for interactive requests (default: derived from {@link #interactiveRateShare(double)}).
+         */
+        public Builder bulkRate(TokenBucketRateLimiter bulkRateLimiter) {
+            this.bulkRateLimiter = bulkRateLimiter;
+            return this;
+        }
+
+        public RequestScheduler build() {
+            return new RequestScheduler(this);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package de.entwicklertraining.bouncer4j.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side token bucket limiting how many requests may start per second.
+ *
+ * <p>The bucket holds up to {@code burst} tokens and refills at {@code permitsPerSecond}.
+ * Internally it is implemented as a virtual scheduler (GCRA): a single {@link AtomicLong} stores the time
+ * at which the next token becomes available, and every caller reserves its slot with one CAS.
+ * The acquire path therefore never takes a lock; callers whose slot lies in the future sleep
+ * outside of any shared state until it is reached.
+ *
+ * <pre>{@code
+ * client.setRateLimiter(EndpointFamily.VERIFY, TokenBucketRateLimiter.of(20, 5));
+ * }</pre>
+ */
+public final class TokenBucketRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final AtomicLong nextFreeSlot;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder delayedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = (burst - 1) * intervalNanos;
+        this.nextFreeSlot = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * @param permitsPerSecond Sustained rate at which tokens are refilled.
+     * @param burst            Maximum number of tokens, i.e. requests that may start at once after an idle period.
+     */
+    public static TokenBucketRateLimiter of(double permitsPerSecond, int burst) {
+        return new TokenBucketRateLimiter(permitsPerSecond, burst);
+    }
+
+    /**
+     * Takes one token, waiting until it becomes available.
+     *
+     * @return The time spent waiting.
+     * @throws InterruptedException if interrupted while waiting; the reserved token is not returned.
+     */
+    public Duration acquire() throws InterruptedException {
+        long waitNanos = reserve(Long.MAX_VALUE);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Takes one token only if it is available immediately.
+     *
+     * @return true if a token was taken.
+     */
+    public boolean tryAcquire() {
+        return reserve(0) == 0;
+    }
+
+    /**
+     * Reserves the next slot if it starts within {@code maxWaitNanos}.
+     *
+     * @return The nanos to wait for the reserved slot, or -1 if no slot was reserved.
+     */
+    private long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = nextFreeSlot.get();
+            // Tokens do not accumulate beyond the burst size
+            long slot = Math.max(current, now - burstNanos);
+            long waitNanos = Math.max(0L, slot - now);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            if (nextFreeSlot.compareAndSet(current, slot + intervalNanos)) {
+                record(waitNanos);
+                return waitNanos;
+            }
+        }
+    }
+
+    private void record(long waitNanos) {
+        acquisitions.increment();
+        if (waitNanos > 0) {
+            delayedAcquisitions.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @return A snapshot of the waiting statistics since creation.
+     */
+    public Stats getStats() {
+        return new Stats(
+                acquisitions.sum(),
+                delayedAcquisitions.sum(),
+                Duration.ofNanos(totalWaitNanos.sum()),
+                Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    /**
+     * Waiting statistics of a rate limiter.
+     *
+     * @param acquisitions        Number of tokens handed out.
+     * @param delayedAcquisitions Number of acquisitions that had to wait.
+     * @param totalWait           Sum of all waiting times.
+     * @param maxWait             Longest single waiting time.
+     */
+    public record Stats(long acquisitions, long delayedAcquisitions, Duration totalWait, Duration maxWait) {
+
+        /**
+         * @return The average waiting time over all acquisitions.
+         */
+        public Duration averageWait() {
+            return acquisitions == 0 ? Duration.ZERO : totalWait.dividedBy(acquisitions);
+        }
+    }
+}
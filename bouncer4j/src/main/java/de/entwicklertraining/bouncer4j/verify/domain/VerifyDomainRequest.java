@@ -3,10 +3,14 @@ package de.entwicklertraining.bouncer4j.verify.domain;
 import de.entwicklertraining.api.base.ApiRequestBuilderBase;
 import de.entwicklertraining.bouncer4j.BouncerClient;
 import de.entwicklertraining.bouncer4j.BouncerRequest;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.EndpointFamily;
 import org.json.JSONObject;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a request to the Bouncer Domain Verify API.
@@ -28,6 +32,16 @@ public final class VerifyDomainRequest extends BouncerRequest<VerifyDomainRespon
         return sb.toString();
     }
 
+    @Override
+    public EndpointFamily getEndpointFamily() {
+        return EndpointFamily.DOMAIN;
+    }
+
+    @Override
+    public String getCoalescingKey() {
+        return domain == null ? null : "domain:" + domain.trim().toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public String getHttpMethod() {
         return "GET";
@@ -71,9 +85,32 @@ public final class VerifyDomainRequest extends BouncerRequest<VerifyDomainRespon
             return this.bouncerClient.sendRequest(build());
         }
 
+        /**
+         * Sends the request like {@link #execute()}, giving up once the token is cancelled.
+         *
+         * @param token cancels the request, e.g. at a deadline
+         */
+        public VerifyDomainResponse execute(CancellationToken token) {
+            return this.bouncerClient.sendRequest(build(), token);
+        }
+
         @Override
         public VerifyDomainResponse executeWithExponentialBackoff() {
             return this.bouncerClient.sendRequestWithExponentialBackoff(build());
         }
+
+        /**
+         * Sends the request asynchronously on the client's {@link BouncerClient#getAsyncExecutor() async executor}.
+         */
+        public CompletableFuture<VerifyDomainResponse> executeAsync() {
+            return this.bouncerClient.sendRequestAsync(build());
+        }
+
+        /**
+         * Sends the request asynchronously, retrying with exponential backoff.
+         */
+        public CompletableFuture<VerifyDomainResponse> executeWithExponentialBackoffAsync() {
+            return this.bouncerClient.sendRequestWithExponentialBackoffAsync(build());
+        }
     }
 }
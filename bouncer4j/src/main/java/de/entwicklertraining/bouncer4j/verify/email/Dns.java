@@ -13,10 +13,12 @@ import org.json.JSONObject;
 public final class Dns {
 
     private final DnsType type;
+    private final String rawType; // Typ wie in der Response, z.B. "CNAME"
     private final String record; // Kann null sein
 
-    private Dns(DnsType type, String record) { // DnsType statt String verwenden
+    private Dns(DnsType type, String rawType, String record) { // DnsType statt String verwenden
         this.type = type;
+        this.rawType = rawType;
         this.record = record;
     }
 
@@ -24,6 +26,21 @@ public final class Dns {
         return type;
     }
 
+    /**
+     * Liefert den Typ so, wie er in der Response stand (in Großbuchstaben). Unterscheidet ein ausdrücklich
+     * gemeldetes "UNKNOWN" von Typen, die dieser Client nicht kennt und ebenfalls als {@link DnsType#UNKNOWN} abbildet.
+     */
+    public String getRawType() {
+        return rawType;
+    }
+
+    /**
+     * @return true, wenn Bouncer ausdrücklich meldet, dass die Domain keinen DNS-Eintrag hat
+     */
+    public boolean isMissingRecord() {
+        return "UNKNOWN".equals(rawType) && (record == null || record.isEmpty());
+    }
+
     public String getRecord() {
         return record; // Kann null zurückgeben
     }
@@ -43,6 +60,6 @@ public final class Dns {
 
         String record = json.optString("record", null); // record ist optional
 
-        return new Dns(type, record);
+        return new Dns(type, typeStr, record);
     }
 }
\ No newline at end of file
@@ -3,10 +3,17 @@ package de.entwicklertraining.bouncer4j.verify.email;
 import de.entwicklertraining.api.base.ApiRequestBuilderBase;
 import de.entwicklertraining.bouncer4j.BouncerClient;
 import de.entwicklertraining.bouncer4j.BouncerRequest;
+import de.entwicklertraining.bouncer4j.CancellationToken;
+import de.entwicklertraining.bouncer4j.EndpointFamily;
+import de.entwicklertraining.bouncer4j.TrafficClass;
+import de.entwicklertraining.bouncer4j.resilience.HedgingPolicy;
 import org.json.JSONObject;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a request to the Bouncer Email Verify API.
@@ -16,11 +23,13 @@ public final class VerifyEmailRequest extends BouncerRequest<VerifyEmailResponse
 
     private final String email;
     private final Integer timeout;
+    private final TrafficClass trafficClass;
 
     VerifyEmailRequest(Builder builder) {
         super(builder);
         this.email = builder.email;
         this.timeout = builder.timeout;
+        this.trafficClass = builder.trafficClass;
     }
 
     @Override
@@ -33,6 +42,29 @@ public final class VerifyEmailRequest extends BouncerRequest<VerifyEmailResponse
         return sb.toString();
     }
 
+    @Override
+    public EndpointFamily getEndpointFamily() {
+        return EndpointFamily.VERIFY;
+    }
+
+    @Override
+    public TrafficClass getTrafficClass() {
+        return trafficClass;
+    }
+
+    @Override
+    public String getCoalescingKey() {
+        if (email == null) {
+            return null;
+        }
+        return "verify:" + email.trim().toLowerCase(Locale.ROOT) + (timeout != null ? "?timeout=" + timeout : "");
+    }
+
+    @Override
+    public int getCreditCost() {
+        return 1;
+    }
+
     @Override
     public String getHttpMethod() {
         return "GET";
@@ -57,6 +89,7 @@ public final class VerifyEmailRequest extends BouncerRequest<VerifyEmailResponse
         private final BouncerClient bouncerClient;
         private String email;
         private Integer timeout;
+        private TrafficClass trafficClass = TrafficClass.INTERACTIVE;
 
         public Builder(BouncerClient bouncerClient) {
             this.bouncerClient = bouncerClient;
@@ -72,19 +105,69 @@ public final class VerifyEmailRequest extends BouncerRequest<VerifyEmailResponse
             return this;
         }
 
+        /**
+         * Marks the verification as part of bulk work, e.g. list cleaning (default {@link TrafficClass#INTERACTIVE}).
+         */
+        public Builder trafficClass(TrafficClass trafficClass) {
+            this.trafficClass = Objects.requireNonNull(trafficClass, "trafficClass cannot be null");
+            return this;
+        }
+
         @Override
         public VerifyEmailRequest build() {
             return new VerifyEmailRequest(this);
         }
 
+        /**
+         * Sends the request. Interactive verifications are hedged if the client has a
+         * {@link BouncerClient#setHedgingPolicy hedging policy}.
+         */
         @Override
         public VerifyEmailResponse execute() {
-            return this.bouncerClient.sendRequest(build());
+            return execute(CancellationToken.none());
+        }
+
+        /**
+         * Sends the request like {@link #execute()}, giving up once the token is cancelled.
+         *
+         * @param token cancels the request, e.g. at a deadline
+         */
+        public VerifyEmailResponse execute(CancellationToken token) {
+            VerifyEmailRequest request = build();
+            HedgingPolicy hedging = this.bouncerClient.getHedgingPolicy();
+            int hedgeTimeout = hedging != null ? hedging.getHedgeTimeoutSeconds() : 0;
+            if (hedging == null || trafficClass != TrafficClass.INTERACTIVE || (timeout != null && timeout <= hedgeTimeout)) {
+                return this.bouncerClient.sendRequest(request, token);
+            }
+            VerifyEmailRequest hedge = new Builder(this.bouncerClient)
+                    .email(email)
+                    .timeout(hedgeTimeout)
+                    .trafficClass(trafficClass)
+                    .build();
+            return hedging.execute(
+                    attemptToken -> this.bouncerClient.sendRequest(request, attemptToken),
+                    attemptToken -> this.bouncerClient.sendRequest(hedge, attemptToken),
+                    token,
+                    this.bouncerClient.getAsyncExecutor());
         }
 
         @Override
         public VerifyEmailResponse executeWithExponentialBackoff() {
             return this.bouncerClient.sendRequestWithExponentialBackoff(build());
         }
+
+        /**
+         * Sends the request asynchronously on the client's {@link BouncerClient#getAsyncExecutor() async executor}.
+         */
+        public CompletableFuture<VerifyEmailResponse> executeAsync() {
+            return this.bouncerClient.sendRequestAsync(build());
+        }
+
+        /**
+         * Sends the request asynchronously, retrying with exponential backoff.
+         */
+        public CompletableFuture<VerifyEmailResponse> executeWithExponentialBackoffAsync() {
+            return this.bouncerClient.sendRequestWithExponentialBackoffAsync(build());
+        }
     }
 }